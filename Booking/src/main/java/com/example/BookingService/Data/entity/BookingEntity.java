@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 
 @Data
@@ -23,9 +25,17 @@ public class BookingEntity {
     private Long carId;
     private Long branch_id;
     private LocalDate booking_date;
+    // Start of the booked slot; null for branches that only book by day
+    private LocalTime slot_start;
+    // Seat within the slot (0 .. capacity per slot - 1); unique among the slot's active bookings
+    private Integer slot_seat;
     private Long status_id;
     private String comments;
 
+    // Optimistic lock: updates fail if another transaction saved the booking first
+    @Version
+    private Long version;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
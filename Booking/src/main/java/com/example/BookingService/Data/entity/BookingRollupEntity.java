@@ -0,0 +1,22 @@
+package com.example.BookingService.Data.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+// Number of bookings per (branch, service, date) currently in each status.
+// Maintained incrementally by BookingService; rebuilt from booking for backfill.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("booking_daily_rollup")
+public class BookingRollupEntity {
+    private Long branch_id;
+    private Long service_id;
+    private LocalDate booking_date;
+    private Long status_id;
+    private Long booking_count;
+}
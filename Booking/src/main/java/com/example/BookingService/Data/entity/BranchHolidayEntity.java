@@ -0,0 +1,18 @@
+package com.example.BookingService.Data.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+// A single day on which a branch is closed (public holiday, inventory day, ...)
+@Data
+@Table("branch_holiday")
+public class BranchHolidayEntity {
+    @Id
+    private Long id;
+    private Long branch_id;
+    private LocalDate holiday_date;
+    private String description;
+}
@@ -3,11 +3,18 @@ package com.example.BookingService.Data.entity;
 import lombok.Data;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.time.LocalTime;
+
 // This entity maps the capacity limit for a specific combination of service and branch.
+// The slot columns are optional: when slot_minutes is null the service is booked per day only.
 @Data
 @Table("branch_service")
 public class BranchServiceEntity {
     private Long branch_id;
     private Long service_id;
     private Integer capacity_per_day;
-}
\ No newline at end of file
+    private Integer slot_minutes;
+    private LocalTime open_time;
+    private LocalTime close_time;
+    private Integer capacity_per_slot;
+}
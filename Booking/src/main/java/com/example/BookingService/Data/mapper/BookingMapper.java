@@ -14,6 +14,7 @@ public class BookingMapper {
         entity.setService_id(dto.getService_id());
         entity.setCarId(dto.getCar_id());
         entity.setBranch_id(dto.getBranch_id());
+        entity.setSlot_start(dto.getSlot_start());
         entity.setComments(dto.getComments());
 
         return entity;
@@ -25,6 +26,7 @@ public class BookingMapper {
         model.setCar_id(entity.getCarId());
         model.setBranch_id(entity.getBranch_id());
         model.setBooking_date(entity.getBooking_date());
+        model.setSlot_start(entity.getSlot_start());
 
 
         if (entity.getStatus_id() != null) {
@@ -41,6 +43,7 @@ public class BookingMapper {
         entity.setCarId(model.getCar_id());
         entity.setBranch_id(model.getBranch_id());
         entity.setBooking_date(model.getBooking_date());
+        entity.setSlot_start(model.getSlot_start());
         entity.setComments(model.getComments());
 
         if (model.getStatus() != null) {
@@ -51,6 +54,22 @@ public class BookingMapper {
         return entity;
     }
 
+    // Straight from the row for list responses, without the intermediate BookingModel
+    public BookingResponseDTO toDto(BookingEntity entity) {
+        BookingResponseDTO dto = new BookingResponseDTO();
+        dto.setId(entity.getBooking_id());
+        dto.setService_id(entity.getService_id());
+        dto.setCar_id(entity.getCarId());
+        dto.setBranch_id(entity.getBranch_id());
+        dto.setBooking_date(entity.getBooking_date());
+        dto.setSlot_start(entity.getSlot_start());
+        if (entity.getStatus_id() != null) {
+            dto.setStatus(BookingStatus.fromCode(entity.getStatus_id().intValue()));
+        }
+        dto.setComments(entity.getComments());
+        return dto;
+    }
+
     public BookingResponseDTO toDto(BookingModel model) {
         BookingResponseDTO dto = new BookingResponseDTO();
         dto.setId(model.getId());
@@ -58,6 +77,7 @@ public class BookingMapper {
         dto.setCar_id(model.getCar_id());
         dto.setBranch_id(model.getBranch_id());
         dto.setBooking_date(model.getBooking_date());
+        dto.setSlot_start(model.getSlot_start());
         dto.setStatus(model.getStatus());
         dto.setComments(model.getComments());
         return dto;
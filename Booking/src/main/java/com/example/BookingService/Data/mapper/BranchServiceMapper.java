@@ -12,6 +12,10 @@ public class BranchServiceMapper {
         model.setBranch_id(entity.getBranch_id());
         model.setService_id(entity.getService_id());
         model.setCapacity_per_day(entity.getCapacity_per_day());
+        model.setSlot_minutes(entity.getSlot_minutes());
+        model.setOpen_time(entity.getOpen_time());
+        model.setClose_time(entity.getClose_time());
+        model.setCapacity_per_slot(entity.getCapacity_per_slot());
         return model;
     }
 }
\ No newline at end of file
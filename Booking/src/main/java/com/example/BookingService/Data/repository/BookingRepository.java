@@ -1,13 +1,16 @@
 package com.example.BookingService.Data.repository;
 
 import com.example.BookingService.Data.entity.BookingEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 @Repository
 public interface BookingRepository
@@ -20,6 +23,20 @@ public interface BookingRepository
             "WHERE branch_id = :branchId AND service_id = :serviceId AND booking_date = :date AND status_id = 1")
     Mono<Long> countActiveBookings(Long branchId, Long serviceId, LocalDate date);
 
+    @Query("SELECT * FROM booking WHERE car_id = ANY(:carIds) ORDER BY car_id, booking_date DESC")
+    Flux<BookingEntity> findByCarIds(Long[] carIds);
+
+    @Query("SELECT slot_start, slot_seat FROM booking " +
+            "WHERE branch_id = :branchId AND service_id = :serviceId AND booking_date = :date " +
+            "AND status_id = 1 AND slot_start IS NOT NULL")
+    Flux<ActiveSlot> findActiveSlots(Long branchId, Long serviceId, LocalDate date);
+
+    record ActiveSlot(LocalTime slot_start, Integer slot_seat) {
+    }
+
+    @Query("SELECT branch_id FROM booking WHERE booking_id = :bookingId")
+    Mono<Long> findBranchIdById(Long bookingId);
+
     @Query("SELECT EXISTS(SELECT 1 FROM booking WHERE car_id = $1 AND status_id = 1)")
     Mono<Boolean> existsPendingBookingByCarId(Long carId);
 
@@ -28,4 +45,50 @@ public interface BookingRepository
 
     Mono<BookingEntity> findTopByCarIdOrderByCreatedAtDesc(Long carId);
 
+    // Per car: the latest booking and the earliest PENDING one (often the same row),
+    // ordered so that each car's rows are adjacent with its latest booking first.
+    @Query("SELECT * FROM (" +
+            "SELECT b.*, " +
+            "ROW_NUMBER() OVER (PARTITION BY car_id ORDER BY created_at DESC, booking_id DESC) AS last_rank, " +
+            "ROW_NUMBER() OVER (PARTITION BY car_id, status_id = 1 ORDER BY booking_date, booking_id) AS pending_rank " +
+            "FROM booking b WHERE car_id = ANY(:carIds)) ranked " +
+            "WHERE last_rank = 1 OR (status_id = 1 AND pending_rank = 1) " +
+            "ORDER BY car_id, last_rank")
+    Flux<BookingEntity> findLastAndPendingByCarIds(Long[] carIds);
+
+    // Expires one chunk of PENDING bookings dated before the cutoff, oldest first.
+    // SKIP LOCKED lets several instances run the job without blocking each other.
+    @Query("WITH stale AS (" +
+            "SELECT booking_id FROM booking " +
+            "WHERE status_id = 1 AND booking_date < :cutoff " +
+            "ORDER BY booking_date, booking_id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "UPDATE booking b SET status_id = 5, updated_at = now(), version = b.version + 1 " +
+            "FROM stale WHERE b.booking_id = stale.booking_id " +
+            "RETURNING b.*")
+    Flux<BookingEntity> expireStalePending(LocalDate cutoff, int limit);
+
+    @Query("SELECT MIN(booking_date) FROM booking WHERE status_id = 1 AND booking_date < :cutoff")
+    Mono<LocalDate> findOldestStalePendingDate(LocalDate cutoff);
+
+    // Range scan on idx_booking_pending_date for the reminder window
+    @Query("SELECT * FROM booking WHERE status_id = 1 AND booking_date BETWEEN :from AND :to " +
+            "ORDER BY booking_date, booking_id")
+    Flux<BookingEntity> findPendingBetween(LocalDate from, LocalDate to);
+
+    // Every instance loads the same reminder window; the first to insert the claim sends the
+    // reminder and the others get 0 rows back
+    @Modifying
+    @Query("INSERT INTO booking_reminder_claim (booking_id, remind_before_seconds, claimed_at) " +
+            "VALUES (:bookingId, :remindBeforeSeconds, now()) ON CONFLICT DO NOTHING")
+    Mono<Integer> claimReminder(Long bookingId, long remindBeforeSeconds);
+
+    @Modifying
+    @Query("DELETE FROM booking_reminder_claim WHERE claimed_at < :before")
+    Mono<Integer> deleteReminderClaimsBefore(Instant before);
+
+    // Index-only scan on idx_booking_day_sheet
+    @Query("SELECT booking_id, service_id, car_id, branch_id, booking_date, slot_start, status_id, comments " +
+            "FROM booking WHERE branch_id = :branchId AND booking_date = :date ORDER BY booking_id")
+    Flux<BookingEntity> findDaySheet(Long branchId, LocalDate date);
+
 }
\ No newline at end of file
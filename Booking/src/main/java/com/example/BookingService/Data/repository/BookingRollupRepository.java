@@ -0,0 +1,47 @@
+package com.example.BookingService.Data.repository;
+
+import com.example.BookingService.Data.entity.BookingRollupEntity;
+import com.example.BookingService.Domain.dto.UtilizationReportDTO;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+public interface BookingRollupRepository extends ReactiveCrudRepository<BookingRollupEntity, Long> {
+
+    @Modifying
+    @Query("INSERT INTO booking_daily_rollup (branch_id, service_id, booking_date, status_id, booking_count) " +
+            "VALUES (:branchId, :serviceId, :date, :statusId, :delta) " +
+            "ON CONFLICT (branch_id, service_id, booking_date, status_id) " +
+            "DO UPDATE SET booking_count = booking_daily_rollup.booking_count + EXCLUDED.booking_count")
+    Mono<Integer> addToCount(Long branchId, Long serviceId, LocalDate date, Long statusId, long delta);
+
+    @Query("SELECT r.branch_id, r.service_id, r.booking_date, " +
+            "MAX(bs.capacity_per_day) AS capacity_per_day, " +
+            "COALESCE(SUM(r.booking_count) FILTER (WHERE r.status_id IN (1, 3)), 0)::bigint AS booked, " +
+            "COALESCE(SUM(r.booking_count) FILTER (WHERE r.status_id = 4), 0)::bigint AS cancelled, " +
+            "COALESCE(SUM(r.booking_count) FILTER (WHERE r.status_id = 2), 0)::bigint AS rescheduled, " +
+            "COALESCE(SUM(r.booking_count), 0)::bigint AS total " +
+            "FROM booking_daily_rollup r " +
+            "LEFT JOIN branch_service bs ON bs.branch_id = r.branch_id AND bs.service_id = r.service_id " +
+            "WHERE r.branch_id = :branchId AND r.booking_date BETWEEN :from AND :to " +
+            "GROUP BY r.branch_id, r.service_id, r.booking_date " +
+            "ORDER BY r.booking_date, r.service_id")
+    Flux<UtilizationReportDTO> findUtilization(Long branchId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM booking_daily_rollup WHERE booking_date BETWEEN :from AND :to")
+    Mono<Integer> deleteRange(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("INSERT INTO booking_daily_rollup (branch_id, service_id, booking_date, status_id, booking_count) " +
+            "SELECT branch_id, service_id, booking_date, status_id, COUNT(*) FROM booking " +
+            "WHERE booking_date BETWEEN :from AND :to " +
+            "GROUP BY branch_id, service_id, booking_date, status_id")
+    Mono<Integer> insertRangeFromBookings(LocalDate from, LocalDate to);
+}
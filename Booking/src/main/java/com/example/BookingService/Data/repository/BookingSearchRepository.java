@@ -0,0 +1,90 @@
+package com.example.BookingService.Data.repository;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Domain.model.BookingSearchCriteria;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+// Admin booking search. Every supported filter combination maps to one Shape, and every Shape
+// has a composite index (see migration.sql) whose leading columns are the equality filters and
+// whose tail is (booking_date, booking_id) - the sort and keyset order. Combinations without a
+// shape are rejected, so the search never degrades into a sequential scan.
+@Repository
+public class BookingSearchRepository {
+
+    public enum Shape {
+        BRANCH_DATE("idx_booking_day_sheet"),
+        BRANCH_STATUS_DATE("idx_booking_branch_status_date"),
+        BRANCH_SERVICE_DATE("idx_booking_branch_service_date"),
+        BRANCH_SERVICE_STATUS_DATE("idx_booking_branch_service_status_date");
+
+        private final String index;
+
+        Shape(String index) {
+            this.index = index;
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public static Shape of(BookingSearchCriteria criteria) {
+            if (criteria.getBranchId() == null) {
+                throw new IllegalArgumentException("branchId is required: every search index starts with branch_id.");
+            }
+            if (criteria.getServiceId() != null) {
+                return criteria.getStatus() != null ? BRANCH_SERVICE_STATUS_DATE : BRANCH_SERVICE_DATE;
+            }
+            return criteria.getStatus() != null ? BRANCH_STATUS_DATE : BRANCH_DATE;
+        }
+    }
+
+    private final R2dbcEntityTemplate template;
+
+    public BookingSearchRepository(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    public Flux<BookingEntity> search(BookingSearchCriteria criteria) {
+        Shape shape = Shape.of(criteria);
+        StringBuilder sql = new StringBuilder("SELECT * FROM booking WHERE branch_id = :branchId");
+        if (shape == Shape.BRANCH_SERVICE_DATE || shape == Shape.BRANCH_SERVICE_STATUS_DATE) {
+            sql.append(" AND service_id = :serviceId");
+        }
+        if (shape == Shape.BRANCH_STATUS_DATE || shape == Shape.BRANCH_SERVICE_STATUS_DATE) {
+            sql.append(" AND status_id = :statusId");
+        }
+        if (criteria.getFrom() != null) {
+            sql.append(" AND booking_date >= :from");
+        }
+        if (criteria.getTo() != null) {
+            sql.append(" AND booking_date <= :to");
+        }
+        if (criteria.getAfterDate() != null) {
+            sql.append(" AND (booking_date, booking_id) > (:afterDate, :afterId)");
+        }
+        sql.append(" ORDER BY booking_date, booking_id LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString())
+                .bind("branchId", criteria.getBranchId())
+                .bind("limit", criteria.getLimit());
+        if (criteria.getServiceId() != null) {
+            spec = spec.bind("serviceId", criteria.getServiceId());
+        }
+        if (criteria.getStatus() != null) {
+            spec = spec.bind("statusId", (long) criteria.getStatus().getCode());
+        }
+        if (criteria.getFrom() != null) {
+            spec = spec.bind("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            spec = spec.bind("to", criteria.getTo());
+        }
+        if (criteria.getAfterDate() != null) {
+            spec = spec.bind("afterDate", criteria.getAfterDate()).bind("afterId", criteria.getAfterId());
+        }
+        return spec.map((row, metadata) -> template.getConverter().read(BookingEntity.class, row, metadata)).all();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.BookingService.Data.repository;
+
+import com.example.BookingService.Data.entity.BranchHolidayEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// Weekly closure pattern (branch_weekly_closure) and holidays (branch_holiday) of a branch
+public interface BranchCalendarRepository extends ReactiveCrudRepository<BranchHolidayEntity, Long> {
+
+    // ISO day of week, 1 = Monday
+    @Query("SELECT day_of_week FROM branch_weekly_closure WHERE branch_id = :branchId ORDER BY day_of_week")
+    Flux<Integer> findWeeklyClosedDays(Long branchId);
+
+    @Modifying
+    @Query("DELETE FROM branch_weekly_closure WHERE branch_id = :branchId")
+    Mono<Integer> deleteWeeklyClosedDays(Long branchId);
+
+    @Modifying
+    @Query("INSERT INTO branch_weekly_closure (branch_id, day_of_week) " +
+            "SELECT :branchId, UNNEST(CAST(:daysOfWeek AS SMALLINT[]))")
+    Mono<Integer> insertWeeklyClosedDays(Long branchId, Integer[] daysOfWeek);
+
+    @Query("SELECT * FROM branch_holiday WHERE branch_id = :branchId AND holiday_date BETWEEN :from AND :to " +
+            "ORDER BY holiday_date")
+    Flux<BranchHolidayEntity> findHolidays(Long branchId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("INSERT INTO branch_holiday (branch_id, holiday_date, description) VALUES (:branchId, :date, :description) " +
+            "ON CONFLICT (branch_id, holiday_date) DO UPDATE SET description = EXCLUDED.description")
+    Mono<Integer> upsertHoliday(Long branchId, LocalDate date, String description);
+
+    @Modifying
+    @Query("DELETE FROM branch_holiday WHERE branch_id = :branchId AND holiday_date = :date")
+    Mono<Integer> deleteHoliday(Long branchId, LocalDate date);
+}
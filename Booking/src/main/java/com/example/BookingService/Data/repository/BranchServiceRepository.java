@@ -9,6 +9,8 @@ import reactor.core.publisher.Mono;
 public interface BranchServiceRepository extends ReactiveCrudRepository<BranchServiceEntity, Long> {
     @Query("SELECT capacity_per_day FROM branch_service WHERE branch_id = :branchId AND service_id = :serviceId")
     Mono<Integer> findCapacityByBranchAndService(Long branchId, Long serviceId);
+    @Query("SELECT * FROM branch_service WHERE branch_id = :branchId AND service_id = :serviceId")
+    Mono<BranchServiceEntity> findByBranchAndService(Long branchId, Long serviceId);
     @Query("SELECT service_id FROM branch_service WHERE branch_id = :branchId")
     Flux<Long> findServiceIdsByBranchId(Long branchId);
 }
\ No newline at end of file
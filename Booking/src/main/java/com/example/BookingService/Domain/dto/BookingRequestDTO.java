@@ -1,6 +1,7 @@
 package com.example.BookingService.Domain.dto;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import lombok.Data;
 
 @Data
@@ -9,5 +10,6 @@ public class BookingRequestDTO {
     private Long service_id;
     private Long branch_id;
     private LocalDate booking_date;
+    private LocalTime slot_start;
     private String comments;
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.BookingService.Domain.dto;
 // package com.example.BookingService.Domain.dto;
 import com.example.BookingService.Domain.model.BookingStatus;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import lombok.Data;
 
 @Data
@@ -12,6 +13,7 @@ public class BookingResponseDTO {
     private Long car_id;
     private Long branch_id;
     private LocalDate booking_date;
+    private LocalTime slot_start;
     private BookingStatus status; // Use the Domain Enum here
     private String comments;
 }
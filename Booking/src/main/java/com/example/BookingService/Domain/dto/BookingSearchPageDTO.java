@@ -0,0 +1,13 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One page of search results; pass next_cursor as `after` to get the following page
+@Data
+public class BookingSearchPageDTO {
+    private List<BookingResponseDTO> items = new ArrayList<>();
+    private String next_cursor;
+}
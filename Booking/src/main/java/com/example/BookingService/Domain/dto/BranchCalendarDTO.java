@@ -0,0 +1,15 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+// Weekly closed days and upcoming holidays of a branch
+@Data
+public class BranchCalendarDTO {
+    private Long branch_id;
+    private List<DayOfWeek> weekly_closed_days = new ArrayList<>();
+    private List<BranchHolidayDTO> holidays = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bookings of one branch on one day. Pass version back as `since` to receive only the bookings
+// changed after it; delta is false when the full sheet was sent instead.
+@Data
+public class BranchDaySheetDTO {
+    private Long branch_id;
+    private LocalDate date;
+    private String version;
+    private boolean delta;
+    private List<BookingResponseDTO> bookings = new ArrayList<>();
+}
@@ -0,0 +1,11 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class BranchHolidayDTO {
+    private LocalDate date;
+    private String description;
+}
@@ -0,0 +1,11 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+// Latest booking and open (PENDING) booking of one car, either may be null
+@Data
+public class CarBookingLookupDTO {
+    private Long car_id;
+    private BookingResponseDTO last;
+    private BookingResponseDTO pending;
+}
@@ -0,0 +1,10 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CarBookingLookupRequestDTO {
+    private List<Long> car_ids;
+}
@@ -0,0 +1,19 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One entry of the demo service's /api/customer-cars/changes feed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarChangeDTO {
+
+    public static final String ADDED = "ADDED";
+    public static final String REMOVED = "REMOVED";
+
+    private Long id;
+    private Long carId;
+    private String operation;
+}
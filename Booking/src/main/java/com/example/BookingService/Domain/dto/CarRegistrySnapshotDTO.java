@@ -0,0 +1,16 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Snapshot of customer car ids served by the demo service's /api/customer-cars/ids
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarRegistrySnapshotDTO {
+    private Long sequence;
+    private List<Long> carIds;
+}
@@ -0,0 +1,15 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Customer car from the demo service together with its bookings
+@Data
+public class CarSummaryDTO {
+    private Long id;
+    private String vin;
+    private Long automotiveId;
+    private List<BookingResponseDTO> bookings = new ArrayList<>();
+}
@@ -0,0 +1,15 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Call-centre view of one customer. Dependencies that failed or timed out are
+// listed in degraded and their part of the response is left empty.
+@Data
+public class Customer360DTO {
+    private CustomerSummaryDTO customer;
+    private List<CarSummaryDTO> cars = new ArrayList<>();
+    private List<String> degraded = new ArrayList<>();
+}
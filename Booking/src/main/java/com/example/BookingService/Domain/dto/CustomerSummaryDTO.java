@@ -0,0 +1,15 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.util.UUID;
+
+// Customer fields returned by customer-service's /api/customers/phone/{phone}
+@Data
+public class CustomerSummaryDTO {
+    private UUID id;
+    private String customerNumber;
+    private String name;
+    private String phone;
+    private String email;
+}
@@ -0,0 +1,22 @@
+package com.example.BookingService.Domain.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Daily utilization of one branch/service, read from the booking_daily_rollup table.
+// Rates are fractions of all bookings made for that day.
+@Data
+public class UtilizationReportDTO {
+    private Long branch_id;
+    private Long service_id;
+    private LocalDate booking_date;
+    private Integer capacity_per_day;
+    private Long booked;
+    private Long cancelled;
+    private Long rescheduled;
+    private Long total;
+    private Double utilization;
+    private Double cancellation_rate;
+    private Double reschedule_rate;
+}
@@ -0,0 +1,22 @@
+package com.example.BookingService.Domain.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// One booking status transition: who made it, when, and the booking date before and after.
+// fromStatus is null for a new booking; oldDate/newDate are null when not applicable.
+@Value
+public class AuditRecord {
+
+    Long bookingId;
+    Long carId;
+    Long branchId;
+    BookingStatus fromStatus;
+    BookingStatus toStatus;
+    LocalDate oldDate;
+    LocalDate newDate;
+    String actor;
+    Instant occurredAt;
+}
@@ -3,6 +3,7 @@ package com.example.BookingService.Domain.model;
 import lombok.Data;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 @Data
 public class BookingModel {
@@ -12,6 +13,7 @@ public class BookingModel {
     private Long car_id;
     private Long branch_id;
     private LocalDate booking_date;
+    private LocalTime slot_start;
     private BookingStatus status;
     private String comments;
 }
@@ -0,0 +1,22 @@
+package com.example.BookingService.Domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+// Filters of the admin booking search plus the keyset position to continue after.
+// Dates are inclusive; any filter except branchId may be null.
+@Value
+@Builder(toBuilder = true)
+public class BookingSearchCriteria {
+
+    Long branchId;
+    Long serviceId;
+    BookingStatus status;
+    LocalDate from;
+    LocalDate to;
+    LocalDate afterDate;
+    Long afterId;
+    int limit;
+}
@@ -5,7 +5,8 @@ public enum BookingStatus {
     PENDING(1),
     RESCHEDULED(2),
     COMPLETED(3),
-    CANCELLED(4);
+    CANCELLED(4),
+    EXPIRED(5);
 
     private final int code;
 
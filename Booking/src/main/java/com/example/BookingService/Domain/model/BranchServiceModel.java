@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.LocalTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +13,8 @@ public class BranchServiceModel {
     private Long branch_id;
     private Long service_id;
     private Integer capacity_per_day;
+    private Integer slot_minutes;
+    private LocalTime open_time;
+    private LocalTime close_time;
+    private Integer capacity_per_slot;
 }
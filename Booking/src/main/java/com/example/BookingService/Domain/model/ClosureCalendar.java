@@ -0,0 +1,110 @@
+package com.example.BookingService.Domain.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+// Closed days of one branch compiled into a bitset over a rolling horizon starting at
+// `start` (bit set = closed), so the next open day is found with a word scan.
+// Past the horizon only the weekly pattern applies.
+public final class ClosureCalendar {
+
+    private static final int ALL_WEEK = 0x7F;
+
+    private final LocalDate start;
+    private final int days;
+    private final long[] closed;
+    // Bit (dayOfWeek - 1) set when the branch is closed on that weekday
+    private final int weeklyMask;
+
+    private ClosureCalendar(LocalDate start, int days, long[] closed, int weeklyMask) {
+        this.start = start;
+        this.days = days;
+        this.closed = closed;
+        this.weeklyMask = weeklyMask;
+    }
+
+    public static ClosureCalendar compile(LocalDate start, int days,
+                                          Collection<DayOfWeek> weeklyClosed, Collection<LocalDate> holidays) {
+        int weeklyMask = 0;
+        for (DayOfWeek day : weeklyClosed) {
+            weeklyMask |= 1 << (day.getValue() - 1);
+        }
+        long[] closed = new long[(days + 63) >>> 6];
+        int weekday = start.getDayOfWeek().getValue() - 1;
+        for (int i = 0; i < days; i++) {
+            if ((weeklyMask & (1 << weekday)) != 0) {
+                closed[i >>> 6] |= 1L << i;
+            }
+            weekday = weekday == 6 ? 0 : weekday + 1;
+        }
+        for (LocalDate holiday : holidays) {
+            long i = ChronoUnit.DAYS.between(start, holiday);
+            if (i >= 0 && i < days) {
+                closed[(int) i >>> 6] |= 1L << i;
+            }
+        }
+        return new ClosureCalendar(start, days, closed, weeklyMask);
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public boolean isAlwaysClosed() {
+        return weeklyMask == ALL_WEEK;
+    }
+
+    public boolean isOpen(LocalDate date) {
+        long i = ChronoUnit.DAYS.between(start, date);
+        if (i >= 0 && i < days) {
+            return (closed[(int) i >>> 6] & (1L << i)) == 0;
+        }
+        return openOnWeekday(date);
+    }
+
+    // First open day on or after `from`; null when the branch is closed every day of the week
+    public LocalDate nextOpen(LocalDate from) {
+        if (isAlwaysClosed()) {
+            return null;
+        }
+        long offset = ChronoUnit.DAYS.between(start, from);
+        if (offset < 0) {
+            LocalDate date = from;
+            while (date.isBefore(start)) {
+                if (openOnWeekday(date)) {
+                    return date;
+                }
+                date = date.plusDays(1);
+            }
+            offset = 0;
+        }
+        if (offset < days) {
+            int index = (int) offset;
+            for (int w = index >>> 6; w < closed.length; w++) {
+                long open = ~closed[w];
+                if (w == index >>> 6) {
+                    open &= -1L << index;
+                }
+                if (open != 0) {
+                    int found = (w << 6) + Long.numberOfTrailingZeros(open);
+                    if (found < days) {
+                        return start.plusDays(found);
+                    }
+                    break;
+                }
+            }
+            offset = days;
+        }
+        LocalDate date = start.plusDays(offset);
+        while (!openOnWeekday(date)) {
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+
+    private boolean openOnWeekday(LocalDate date) {
+        return (weeklyMask & (1 << (date.getDayOfWeek().getValue() - 1))) == 0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.BookingService.Domain.model;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Occupancy of one branch/service/day: the taken seats of each slot plus a bitmap of the
+// slots that reached capacity, so free-slot search is a scan over 64-slot words.
+// A slot has capacity-per-slot seats; every active booking holds one, and the database keeps
+// (slot, seat) unique, so two instances cannot both hand out the last seat of a slot.
+public class SlotOccupancy {
+
+    private final SlotSchedule schedule;
+    private final BitSet[] seats;
+    private final long[] full;
+
+    public record Reservation(int slot, int seat) {
+    }
+
+    public SlotOccupancy(SlotSchedule schedule) {
+        this.schedule = schedule;
+        this.seats = new BitSet[schedule.getSlotCount()];
+        this.full = new long[(schedule.getSlotCount() + 63) >>> 6];
+    }
+
+    public SlotSchedule getSchedule() {
+        return schedule;
+    }
+
+    public synchronized boolean hasFreeSlot() {
+        return nextFree(0) >= 0;
+    }
+
+    public synchronized boolean isFree(int slot) {
+        return slot >= 0 && slot < seats.length && (full[slot >>> 6] & (1L << slot)) == 0;
+    }
+
+    public synchronized List<LocalTime> freeSlots(int limit) {
+        List<LocalTime> slots = new ArrayList<>();
+        for (int slot = nextFree(0); slot >= 0 && slots.size() < limit; slot = nextFree(slot + 1)) {
+            slots.add(schedule.startOf(slot));
+        }
+        return slots;
+    }
+
+    // Reserves the lowest free seat of the requested slot, or of the first free slot when
+    // requested is -1. Returns null if nothing could be reserved.
+    public synchronized Reservation reserve(int requested) {
+        int slot = requested >= 0 ? requested : nextFree(0);
+        if (!isFree(slot)) {
+            return null;
+        }
+        int seat = taken(slot).nextClearBit(0);
+        take(slot, seat);
+        return new Reservation(slot, seat);
+    }
+
+    // Counts a booking that is already stored, even if it overbooks the slot.
+    // A booking stored without a seat (seat -1) takes the lowest free one.
+    public synchronized void add(int slot, int seat) {
+        if (slot < 0 || slot >= seats.length) {
+            return;
+        }
+        take(slot, seat >= 0 ? seat : taken(slot).nextClearBit(0));
+    }
+
+    // Frees the booking's seat; for a booking without a seat, any taken one.
+    public synchronized void release(int slot, int seat) {
+        if (slot < 0 || slot >= seats.length || seats[slot] == null || seats[slot].isEmpty()) {
+            return;
+        }
+        seats[slot].clear(seat >= 0 ? seat : seats[slot].length() - 1);
+        if (seats[slot].cardinality() < schedule.getCapacityPerSlot()) {
+            full[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    private BitSet taken(int slot) {
+        if (seats[slot] == null) {
+            seats[slot] = new BitSet();
+        }
+        return seats[slot];
+    }
+
+    private void take(int slot, int seat) {
+        BitSet taken = taken(slot);
+        taken.set(seat);
+        if (taken.cardinality() >= schedule.getCapacityPerSlot()) {
+            full[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    private int nextFree(int from) {
+        int slotCount = seats.length;
+        if (from >= slotCount) {
+            return -1;
+        }
+        for (int w = from >>> 6; w < full.length; w++) {
+            long free = ~full[w];
+            if (w == from >>> 6) {
+                free &= -1L << from;
+            }
+            if (w == full.length - 1 && (slotCount & 63) != 0) {
+                free &= (1L << slotCount) - 1;
+            }
+            if (free != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(free);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.BookingService.Domain.model;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+// Fixed-length slots of one branch/service between opening and closing time.
+@Value
+public class SlotSchedule {
+
+    LocalTime openTime;
+    int slotMinutes;
+    int slotCount;
+    int capacityPerSlot;
+
+    // Returns null when the branch/service only books per day.
+    public static SlotSchedule of(BranchServiceModel rule) {
+        if (rule.getSlot_minutes() == null || rule.getSlot_minutes() <= 0
+                || rule.getOpen_time() == null || rule.getClose_time() == null) {
+            return null;
+        }
+        int minutesOpen = (int) Duration.between(rule.getOpen_time(), rule.getClose_time()).toMinutes();
+        int slotCount = minutesOpen / rule.getSlot_minutes();
+        if (slotCount <= 0) {
+            return null;
+        }
+        int capacityPerSlot = rule.getCapacity_per_slot() != null ? rule.getCapacity_per_slot() : 1;
+        return new SlotSchedule(rule.getOpen_time(), rule.getSlot_minutes(), slotCount, capacityPerSlot);
+    }
+
+    // Index of the slot starting at the given time, or -1 if it is not a slot boundary.
+    public int indexOf(LocalTime slotStart) {
+        if (slotStart == null || slotStart.isBefore(openTime)) {
+            return -1;
+        }
+        long minutes = Duration.between(openTime, slotStart).toMinutes();
+        if (minutes % slotMinutes != 0 || minutes / slotMinutes >= slotCount) {
+            return -1;
+        }
+        return (int) (minutes / slotMinutes);
+    }
+
+    public LocalTime startOf(int index) {
+        return openTime.plusMinutes((long) index * slotMinutes);
+    }
+}
@@ -4,17 +4,21 @@ package com.example.BookingService.Domain.service;
 
 import com.example.BookingService.Domain.dto.BookingRequestDTO;
 import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.dto.CarBookingLookupDTO;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
 
 
 public interface BookingServiceInterface {
 
     Mono<BookingResponseDTO> createBooking(BookingRequestDTO request);
     Flux<BookingResponseDTO> getBookingsByCarId(Long carId);
-    Mono<BookingResponseDTO> rescheduleBooking(Long oldBookingId, LocalDate newDate, String newComments);
+    Mono<BookingResponseDTO> rescheduleBooking(Long oldBookingId, LocalDate newDate, LocalTime newSlot, String newComments);
     Mono<BookingResponseDTO> cancelBooking(Long bookingId);
     Mono<BookingResponseDTO> getLastBookingByCarId(Long carId);
+    Flux<CarBookingLookupDTO> lookupBookingsByCarIds(List<Long> carIds);
 
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.BookingService.Infrastructure.aggregation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.customer-360")
+public class Customer360Properties {
+
+    private Dependency customerService = new Dependency("http://localhost:8082");
+    private Dependency demo = new Dependency("http://localhost:8083");
+    private Duration bookingsTimeout = Duration.ofMillis(500);
+
+    @Data
+    public static class Dependency {
+        private String baseUrl;
+        private Duration timeout = Duration.ofMillis(800);
+        // A second identical call is sent if the first has not answered after this delay
+        private Duration hedgeDelay = Duration.ofMillis(150);
+
+        public Dependency() {
+        }
+
+        public Dependency(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+    }
+}
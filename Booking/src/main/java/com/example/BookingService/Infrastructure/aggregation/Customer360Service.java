@@ -0,0 +1,150 @@
+package com.example.BookingService.Infrastructure.aggregation;
+
+import com.example.BookingService.Data.mapper.BookingMapper;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.dto.CarSummaryDTO;
+import com.example.BookingService.Domain.dto.Customer360DTO;
+import com.example.BookingService.Domain.dto.CustomerSummaryDTO;
+import com.example.BookingService.Infrastructure.deadline.DeadlineExchangeFilter;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Builds the call-centre customer view: customer by phone (customer-service),
+// their cars in one call (demo), and the bookings of all cars in one query.
+// Remote calls are non-blocking, time-boxed and hedged; a failing dependency
+// degrades its part of the response instead of failing the whole screen.
+@Slf4j
+@Service
+public class Customer360Service {
+
+    static final String CUSTOMER_SERVICE = "customer-service";
+    static final String DEMO = "demo";
+    static final String BOOKING = "booking";
+
+    private final WebClient customerClient;
+    private final WebClient demoClient;
+    private final Customer360Properties properties;
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final BookingShards bookingShards;
+
+    public Customer360Service(
+            Customer360Properties properties,
+            BookingRepository bookingRepository,
+            BookingMapper bookingMapper,
+            BookingShards bookingShards,
+            DeadlineExchangeFilter deadlineFilter,
+            ObservationRegistry observationRegistry) {
+        this.properties = properties;
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.bookingShards = bookingShards;
+        // The observation registry adds client spans and propagates the trace headers downstream;
+        // the deadline filter passes the caller's remaining budget along with them
+        this.customerClient = WebClient.builder()
+                .baseUrl(properties.getCustomerService().getBaseUrl())
+                .observationRegistry(observationRegistry)
+                .filter(deadlineFilter)
+                .build();
+        this.demoClient = WebClient.builder()
+                .baseUrl(properties.getDemo().getBaseUrl())
+                .observationRegistry(observationRegistry)
+                .filter(deadlineFilter)
+                .build();
+    }
+
+    public Mono<Customer360DTO> getByPhone(String phone) {
+        Customer360DTO view = new Customer360DTO();
+
+        Mono<CustomerSummaryDTO> customer = hedged(
+                customerClient.get()
+                        .uri("/api/customers/phone/{phone}", phone)
+                        .retrieve()
+                        .bodyToMono(CustomerSummaryDTO.class)
+                        // a 404 means "no such customer", not a degraded dependency
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty()),
+                properties.getCustomerService());
+
+        return customer
+                .onErrorResume(e -> degrade(view, CUSTOMER_SERVICE, e))
+                .flatMap(found -> {
+                    view.setCustomer(found);
+                    return loadCars(view, found);
+                })
+                .switchIfEmpty(Mono.defer(() -> view.getDegraded().isEmpty()
+                        ? Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "No customer found with phone " + phone))
+                        : Mono.just(view)));
+    }
+
+    private Mono<Customer360DTO> loadCars(Customer360DTO view, CustomerSummaryDTO customer) {
+        return hedged(
+                demoClient.get()
+                        .uri("/api/customer-cars/customer/{customerId}", customer.getId())
+                        .retrieve()
+                        .bodyToFlux(CarSummaryDTO.class)
+                        .collectList(),
+                properties.getDemo())
+                .onErrorResume(e -> degrade(view, DEMO, e))
+                .defaultIfEmpty(List.of())
+                .flatMap(cars -> {
+                    view.setCars(cars);
+                    return cars.isEmpty() ? Mono.just(view) : attachBookings(view, cars);
+                });
+    }
+
+    // One query for the bookings of every car instead of one call per car
+    private Mono<Customer360DTO> attachBookings(Customer360DTO view, List<CarSummaryDTO> cars) {
+        Long[] carIds = cars.stream().map(CarSummaryDTO::getId).toArray(Long[]::new);
+        return bookingShards.onEachShard(() -> bookingRepository.findByCarIds(carIds))
+                .map(bookingMapper::toDomain)
+                .map(bookingMapper::toDto)
+                .collect(Collectors.groupingBy(BookingResponseDTO::getCar_id))
+                .timeout(properties.getBookingsTimeout())
+                .map(byCar -> {
+                    for (CarSummaryDTO car : cars) {
+                        car.setBookings(byCar.getOrDefault(car.getId(), List.of()));
+                    }
+                    return view;
+                })
+                .onErrorResume(e -> degrade(view, BOOKING, e).thenReturn(view));
+    }
+
+    // Sends a second identical request if the first is slower than the hedge delay,
+    // and uses whichever answers first; the whole attempt is bounded by the timeout.
+    // An empty answer (a 404) is an answer too: it is wrapped as an empty Optional so that
+    // firstWithValue takes it and cancels the hedge instead of waiting for the second call.
+    // Only an error from one call leaves the other to answer; if both fail, the dependency
+    // is degraded.
+    private <T> Mono<T> hedged(Mono<T> call, Customer360Properties.Dependency dependency) {
+        Duration hedgeDelay = dependency.getHedgeDelay();
+        if (hedgeDelay == null || hedgeDelay.isZero()) {
+            return call.timeout(dependency.getTimeout());
+        }
+        Mono<Optional<T>> answer = call.map(Optional::of).defaultIfEmpty(Optional.empty());
+        return Mono.firstWithValue(answer, Mono.delay(hedgeDelay).then(answer))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .timeout(dependency.getTimeout());
+    }
+
+    private <T> Mono<T> degrade(Customer360DTO view, String dependency, Throwable e) {
+        log.warn("Customer 360: {} degraded: {}", dependency, e.toString());
+        synchronized (view) {
+            view.getDegraded().add(dependency);
+        }
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.BookingService.Infrastructure.audit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+// Puts the caller behind a request into the Reactor context for the audit log.
+// Only an authenticated principal is recorded as-is. The actor header is set by the caller, so
+// its value is recorded as "claimed:<value>" and never passes for a verified identity.
+@Component
+public class AuditActorFilter implements WebFilter {
+
+    static final String CLAIMED = "claimed:";
+    private static final int MAX_ACTOR_LENGTH = 100;
+
+    private final AuditProperties properties;
+
+    public AuditActorFilter(AuditProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return exchange.getPrincipal()
+                .map(principal -> truncate(principal.getName()))
+                .switchIfEmpty(Mono.fromSupplier(() -> claimedActor(exchange)))
+                .map(BookingAuditLog::withActor)
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    // Null when the header is absent; the audit log then records "system"
+    String claimedActor(ServerWebExchange exchange) {
+        String actor = exchange.getRequest().getHeaders().getFirst(properties.getActorHeader());
+        if (actor == null || actor.isBlank()) {
+            return null;
+        }
+        return truncate(CLAIMED + actor.strip());
+    }
+
+    private static String truncate(String actor) {
+        return actor.length() > MAX_ACTOR_LENGTH ? actor.substring(0, MAX_ACTOR_LENGTH) : actor;
+    }
+}
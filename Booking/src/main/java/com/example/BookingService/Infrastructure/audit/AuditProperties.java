@@ -0,0 +1,31 @@
+package com.example.BookingService.Infrastructure.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.audit")
+public class AuditProperties {
+
+    public enum Durability {
+        // The request returns once the record is buffered; a crash loses what is not flushed yet
+        ASYNC,
+        // The commit waits until the record's batch is written
+        FLUSH_ON_COMMIT
+    }
+
+    private boolean enabled = true;
+    private Durability durability = Durability.ASYNC;
+    // Ring buffer size; records offered to a full buffer are dropped and counted as lost
+    private int capacity = 65_536;
+    // Rows per INSERT, clamped to 1..7281 (9 bind parameters per row, at most 65535 per statement)
+    private int batchSize = 500;
+    // How often the writer drains the buffer in ASYNC mode
+    private Duration flushInterval = Duration.ofMillis(200);
+    private int maxWriteAttempts = 3;
+    // Header naming the staff member or integration behind a request. Callers set it freely, so
+    // without an authenticated principal it is recorded as "claimed:<value>"
+    private String actorHeader = "X-Actor";
+}
@@ -0,0 +1,250 @@
+package com.example.BookingService.Infrastructure.audit;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Domain.model.AuditRecord;
+import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind audit trail of booking status transitions.
+// Records are handed over when the booking transaction commits (never for a rolled-back
+// attempt), kept in a bounded ring buffer and written by one background thread in
+// multi-row INSERTs. In FLUSH_ON_COMMIT mode the commit waits for the record's batch.
+@Slf4j
+@Component
+public class BookingAuditLog implements SmartLifecycle {
+
+    public static final String ACTOR_KEY = "booking.audit.actor";
+    private static final String SYSTEM = "system";
+
+    private static final String INSERT_PREFIX = "INSERT INTO booking_audit " +
+            "(booking_id, car_id, branch_id, from_status_id, to_status_id, old_date, new_date, actor, occurred_at) VALUES ";
+    private static final int COLUMNS = 9;
+    // Postgres takes at most 65535 bind parameters per statement: 7281 rows of 9 columns
+    static final int MAX_BATCH_SIZE = 65_535 / COLUMNS;
+
+    private final DatabaseClient databaseClient;
+    private final BookingShards bookingShards;
+    private final AuditProperties properties;
+    private final ArrayBlockingQueue<Pending> buffer;
+    private final int batchSize;
+
+    private final Counter lostCounter;
+    private final Counter flushedCounter;
+    private final Timer flushLag;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookingAuditLog(
+            DatabaseClient databaseClient,
+            BookingShards bookingShards,
+            AuditProperties properties,
+            MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.bookingShards = bookingShards;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.batchSize = batchSize(properties.getBatchSize());
+        this.lostCounter = meterRegistry.counter("booking.audit.lost");
+        this.flushedCounter = meterRegistry.counter("booking.audit.flushed");
+        this.flushLag = meterRegistry.timer("booking.audit.flush.lag");
+        meterRegistry.gaugeCollectionSize("booking.audit.buffered", List.of(), buffer);
+    }
+
+    static int batchSize(int configured) {
+        int clamped = Math.max(1, Math.min(configured, MAX_BATCH_SIZE));
+        if (clamped != configured) {
+            log.warn("booking.audit.batch-size {} is outside 1..{}, using {}", configured, MAX_BATCH_SIZE, clamped);
+        }
+        return clamped;
+    }
+
+    public static Context withActor(String actor) {
+        return Context.of(ACTOR_KEY, actor);
+    }
+
+    // Audits a transition made inside the current transaction; outside a transaction the
+    // record is buffered right away
+    public Mono<Void> record(BookingEntity booking, BookingStatus from, BookingStatus to,
+                             LocalDate oldDate, LocalDate newDate) {
+        if (!properties.isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.deferContextual(context -> {
+            AuditRecord record = new AuditRecord(booking.getBooking_id(), booking.getCarId(), booking.getBranch_id(),
+                    from, to, oldDate, newDate, context.getOrDefault(ACTOR_KEY, SYSTEM), Instant.now());
+            return TransactionSynchronizationManager.forCurrentTransaction()
+                    .flatMap(synchronization -> {
+                        if (!synchronization.isSynchronizationActive()) {
+                            return enqueue(record);
+                        }
+                        synchronization.registerSynchronization(new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCommit() {
+                                return enqueue(record);
+                            }
+                        });
+                        return Mono.<Void>empty();
+                    })
+                    .onErrorResume(NoTransactionException.class, e -> enqueue(record));
+        });
+    }
+
+    private Mono<Void> enqueue(AuditRecord record) {
+        boolean waitForFlush = properties.getDurability() == AuditProperties.Durability.FLUSH_ON_COMMIT;
+        Pending pending = new Pending(record, System.nanoTime(), waitForFlush ? new CompletableFuture<>() : null);
+        if (!buffer.offer(pending)) {
+            lostCounter.increment();
+            log.warn("Audit buffer full, dropped {} -> {} of booking {}",
+                    record.getFromStatus(), record.getToStatus(), record.getBookingId());
+            return Mono.empty();
+        }
+        return waitForFlush ? Mono.fromFuture(pending.flushed()) : Mono.empty();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        while (running || !buffer.isEmpty()) {
+            try {
+                if (properties.getDurability() == AuditProperties.Durability.FLUSH_ON_COMMIT) {
+                    // Group commit: wake up on the first record and take whatever queued behind it
+                    Pending first = buffer.poll(intervalMillis, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                    }
+                } else if (running) {
+                    Thread.sleep(intervalMillis);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts the wait; the loop drains what is left and exits
+            }
+            buffer.drainTo(batch, batchSize - batch.size());
+            while (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+                buffer.drainTo(batch, batchSize);
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch).block(Duration.ofSeconds(30));
+                long now = System.nanoTime();
+                for (Pending pending : batch) {
+                    flushLag.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+                    if (pending.flushed() != null) {
+                        pending.flushed().complete(null);
+                    }
+                }
+                flushedCounter.increment(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxWriteAttempts()) {
+                    // The bookings are already committed, so callers are released rather than failed
+                    lostCounter.increment(batch.size());
+                    log.error("Dropped {} audit records after {} failed writes: {}", batch.size(), attempt, e.toString());
+                    batch.stream().filter(pending -> pending.flushed() != null)
+                            .forEach(pending -> pending.flushed().complete(null));
+                    return;
+                }
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // One multi-row INSERT per batch; the audit table lives on the default shard
+    private Mono<Long> insert(List<Pending> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int row = 0; row < batch.size(); row++) {
+            sql.append(row == 0 ? "(" : ",(");
+            for (int column = 1; column <= COLUMNS; column++) {
+                sql.append('$').append(row * COLUMNS + column).append(column < COLUMNS ? "," : ")");
+            }
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int index = 0;
+        for (Pending pending : batch) {
+            AuditRecord record = pending.record();
+            spec = bind(spec, index++, record.getBookingId(), Long.class);
+            spec = bind(spec, index++, record.getCarId(), Long.class);
+            spec = bind(spec, index++, record.getBranchId(), Long.class);
+            spec = bind(spec, index++, record.getFromStatus() == null ? null : (long) record.getFromStatus().getCode(), Long.class);
+            spec = bind(spec, index++, (long) record.getToStatus().getCode(), Long.class);
+            spec = bind(spec, index++, record.getOldDate(), LocalDate.class);
+            spec = bind(spec, index++, record.getNewDate(), LocalDate.class);
+            spec = bind(spec, index++, record.getActor(), String.class);
+            spec = bind(spec, index++, record.getOccurredAt(), Instant.class);
+        }
+        return spec.fetch().rowsUpdated()
+                .contextWrite(BookingShards.forShard(bookingShards.defaultShard()));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(
+            DatabaseClient.GenericExecuteSpec spec, int index, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(index, type) : spec.bind(index, value);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "booking-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Flushes what is buffered before the connection pools close
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(Duration.ofSeconds(30).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server has drained its requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private record Pending(AuditRecord record, long enqueuedAt, CompletableFuture<Void> flushed) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.BookingService.Infrastructure.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.cache-bus")
+public class CacheBusProperties {
+
+    private boolean enabled = true;
+    // LISTEN/NOTIFY channel on the default shard; a plain lower-case identifier
+    private String channel = "booking_cache";
+    // Keys published within this window go out together, duplicates once
+    private Duration coalesceWindow = Duration.ofMillis(50);
+    private Duration reconnectMinBackoff = Duration.ofSeconds(1);
+    private Duration reconnectMaxBackoff = Duration.ofSeconds(30);
+}
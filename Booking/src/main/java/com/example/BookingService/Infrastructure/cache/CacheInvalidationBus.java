@@ -0,0 +1,247 @@
+package com.example.BookingService.Infrastructure.cache;
+
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Carries cache invalidations between instances over Postgres LISTEN/NOTIFY. Writers publish
+// "namespace:key" after applying the invalidation to their own cache; keys are coalesced for the
+// coalesce window and sent as few NOTIFY payloads as fit. Every instance keeps one dedicated
+// connection listening on the channel and hands each key to the cache registered for its
+// namespace. Channel and listener live on the default shard, whatever shard the write went to.
+// NOTIFY is not delivered to a connection that is down, so after every (re)connect
+// all registered caches are cleared.
+@Slf4j
+@Component
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    // pg_notify payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7500;
+    private static final char SENDER_SEPARATOR = '|';
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final boolean enabled;
+    private final String channel;
+    private final Duration coalesceWindow;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final String defaultShard;
+    private final DatabaseClient databaseClient;
+    private final ConnectionFactory listenerConnectionFactory;
+    // Own notifications come back on the channel and are skipped
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Counter publishedCounter;
+    private final Counter receivedCounter;
+    private final Counter resyncCounter;
+
+    private volatile Disposable listener;
+    private volatile Disposable publisher;
+    private volatile boolean connected;
+
+    private record Registration(Consumer<String> invalidate, Runnable clear) {
+    }
+
+    public CacheInvalidationBus(
+            CacheBusProperties properties,
+            BookingShards bookingShards,
+            DatabaseClient databaseClient,
+            MeterRegistry meterRegistry) {
+        if (!properties.getChannel().matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException(
+                    "booking.cache-bus.channel must be a plain lower-case identifier: " + properties.getChannel());
+        }
+        this.databaseClient = databaseClient;
+        this.enabled = properties.isEnabled();
+        this.channel = properties.getChannel();
+        this.coalesceWindow = properties.getCoalesceWindow();
+        this.minBackoff = properties.getReconnectMinBackoff();
+        this.maxBackoff = properties.getReconnectMaxBackoff();
+        this.defaultShard = bookingShards.defaultShard();
+        this.listenerConnectionFactory = ConnectionFactories.get(unpooled(bookingShards.options(defaultShard)));
+        this.publishedCounter = meterRegistry.counter("booking.cache.invalidation", "direction", "published");
+        this.receivedCounter = meterRegistry.counter("booking.cache.invalidation", "direction", "received");
+        this.resyncCounter = meterRegistry.counter("booking.cache.invalidation.resync");
+        meterRegistry.gauge("booking.cache.invalidation.connected", this, bus -> bus.connected ? 1 : 0);
+    }
+
+    public void register(String namespace, Consumer<String> invalidate, Runnable clear) {
+        registrations.put(namespace, new Registration(invalidate, clear));
+    }
+
+    // Tells the other instances to drop the key; the caller has already dropped it locally
+    public void publish(String namespace, String key) {
+        if (enabled && key != null) {
+            pending.add(namespace + ':' + key);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        publisher = Flux.interval(coalesceWindow)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+        listener = Flux.defer(this::listen)
+                .doOnError(e -> log.warn("Cache invalidation listener lost its connection: {}", e.getMessage()))
+                // The notification stream also ends when the server closes the connection
+                .repeatWhen(completed -> completed.delayElements(minBackoff))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, minBackoff).maxBackoff(maxBackoff).transientErrors(true))
+                .subscribe(this::onNotification);
+    }
+
+    @Override
+    public void stop() {
+        if (listener != null) {
+            listener.dispose();
+        }
+        if (publisher != null) {
+            publisher.dispose();
+        }
+        // Best effort: send what is still pending before the pool goes away
+        flush().block(Duration.ofSeconds(2));
+        connected = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return listener != null && !listener.isDisposed();
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    String getInstanceId() {
+        return instanceId;
+    }
+
+    private Flux<Notification> listen() {
+        return Flux.usingWhen(
+                Mono.from(listenerConnectionFactory.create()).cast(PostgresqlConnection.class),
+                connection -> connection.createStatement("LISTEN " + channel).execute()
+                        .flatMap(PostgresqlResult::getRowsUpdated)
+                        .then(Mono.fromRunnable(this::resync))
+                        .thenMany(connection.getNotifications()),
+                connection -> Mono.from(connection.close()).doFinally(signal -> connected = false));
+    }
+
+    // Whatever was published while this instance was not listening is lost, so start clean
+    private void resync() {
+        resyncCounter.increment();
+        registrations.values().forEach(registration -> registration.clear().run());
+        connected = true;
+        log.info("Cache invalidation listener connected on '{}'; cleared {} local cache(s)",
+                channel, registrations.size());
+    }
+
+    void onNotification(Notification notification) {
+        String payload = notification.getParameter();
+        int separator = payload == null ? -1 : payload.indexOf(SENDER_SEPARATOR);
+        if (separator < 0 || payload.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        for (String entry : payload.substring(separator + 1).split(String.valueOf(KEY_SEPARATOR))) {
+            int colon = entry.indexOf(':');
+            Registration registration = colon < 0 ? null : registrations.get(entry.substring(0, colon));
+            if (registration == null) {
+                continue;
+            }
+            receivedCounter.increment();
+            try {
+                registration.invalidate().accept(entry.substring(colon + 1));
+            } catch (RuntimeException e) {
+                // A bad key must not end the listener
+                log.warn("Ignoring cache invalidation '{}': {}", entry, e.getMessage());
+            }
+        }
+    }
+
+    private Mono<Void> flush() {
+        List<String> keys = drainPending();
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(payloads(keys))
+                .concatMap(payload -> databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                        .bind("channel", channel)
+                        .bind("payload", payload)
+                        .fetch()
+                        .rowsUpdated()
+                        .contextWrite(BookingShards.forShard(defaultShard)))
+                .doOnComplete(() -> publishedCounter.increment(keys.size()))
+                .onErrorResume(e -> {
+                    // The other instances fall back to the cache TTLs for these keys
+                    log.warn("Could not publish {} cache invalidation(s): {}", keys.size(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Keys published since the last flush, each once however often it was published
+    List<String> drainPending() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<String> keys = new ArrayList<>(pending);
+        pending.removeAll(keys);
+        return keys;
+    }
+
+    List<String> payloads(List<String> keys) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder().append(instanceId).append(SENDER_SEPARATOR);
+        int header = payload.length();
+        int bytes = header;
+        for (String key : keys) {
+            int keyBytes = key.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + keyBytes > MAX_PAYLOAD_BYTES && payload.length() > header) {
+                payloads.add(payload.substring(0, payload.length() - 1));
+                payload.setLength(header);
+                bytes = header;
+            }
+            payload.append(key).append(KEY_SEPARATOR);
+            bytes += keyBytes;
+        }
+        payloads.add(payload.substring(0, payload.length() - 1));
+        return payloads;
+    }
+
+    // The listener holds its connection for good, so it is opened outside the pool
+    private static ConnectionFactoryOptions unpooled(ConnectionFactoryOptions options) {
+        if (!"pool".equals(options.getValue(ConnectionFactoryOptions.DRIVER))) {
+            return options;
+        }
+        return options.mutate()
+                .option(ConnectionFactoryOptions.DRIVER, (String) options.getRequiredValue(ConnectionFactoryOptions.PROTOCOL))
+                .build();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.BookingService.Infrastructure.codec;
+
+import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.model.BookingStatus;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractEncoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+// Writes BookingResponseDTO bodies straight into response buffers in the shape Jackson gives them,
+// without Jackson's reflection. Numbers and dates are written digit by digit and field names are
+// pre-encoded, so a row allocates nothing beyond its DTO and its buffer.
+// Flux bodies are written as a JSON array (application/json) or one object per line (NDJSON).
+public class BookingJsonEncoder extends AbstractEncoder<BookingResponseDTO> {
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] SERVICE_ID = ascii(",\"service_id\":");
+    private static final byte[] CAR_ID = ascii(",\"car_id\":");
+    private static final byte[] BRANCH_ID = ascii(",\"branch_id\":");
+    private static final byte[] BOOKING_DATE = ascii(",\"booking_date\":");
+    private static final byte[] SLOT_START = ascii(",\"slot_start\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] COMMENTS = ascii(",\"comments\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] EMPTY_ARRAY = ascii("[]");
+
+    private static final byte[][] QUOTED_STATUS = quotedStatusNames();
+
+    private static final int ROW_CAPACITY = 256;
+
+    public BookingJsonEncoder() {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        return BookingResponseDTO.class.equals(elementType.toClass()) && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<? extends BookingResponseDTO> input, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (input instanceof Mono) {
+            return Mono.from(input).map(row -> encodeValue(row, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        if (mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+            return Flux.from(input).map(row -> write(row, bufferFactory, (byte) 0, (byte) '\n'));
+        }
+        // JSON array: '[' travels with the first row and ']' with the last buffer
+        return Flux.defer(() -> {
+            boolean[] first = {true};
+            return Flux.from(input)
+                    .map(row -> {
+                        byte separator = first[0] ? (byte) '[' : (byte) ',';
+                        first[0] = false;
+                        return write(row, bufferFactory, separator, (byte) 0);
+                    })
+                    .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(first[0] ? EMPTY_ARRAY : new byte[]{']'})));
+        });
+    }
+
+    @Override
+    public DataBuffer encodeValue(BookingResponseDTO row, DataBufferFactory bufferFactory,
+                                  ResolvableType valueType, MimeType mimeType, Map<String, Object> hints) {
+        return write(row, bufferFactory, (byte) 0, (byte) 0);
+    }
+
+    private static DataBuffer write(BookingResponseDTO row, DataBufferFactory bufferFactory, byte before, byte after) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(ROW_CAPACITY);
+        try {
+            if (before != 0) {
+                buffer.write(before);
+            }
+            buffer.write(ID);
+            writeLong(buffer, row.getId());
+            buffer.write(SERVICE_ID);
+            writeLong(buffer, row.getService_id());
+            buffer.write(CAR_ID);
+            writeLong(buffer, row.getCar_id());
+            buffer.write(BRANCH_ID);
+            writeLong(buffer, row.getBranch_id());
+            buffer.write(BOOKING_DATE);
+            writeDate(buffer, row.getBooking_date());
+            buffer.write(SLOT_START);
+            writeTime(buffer, row.getSlot_start());
+            buffer.write(STATUS);
+            writeStatus(buffer, row.getStatus());
+            buffer.write(COMMENTS);
+            writeString(buffer, row.getComments());
+            buffer.write((byte) '}');
+            if (after != 0) {
+                buffer.write(after);
+            }
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    static void writeLong(DataBuffer buffer, Long value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        long v = value;
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) {
+                buffer.write(ascii(Long.toString(v)));
+                return;
+            }
+            buffer.write((byte) '-');
+            v = -v;
+        }
+        long divisor = 1;
+        while (v / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.write((byte) ('0' + v / divisor));
+            v %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    // ISO yyyy-MM-dd, as Jackson writes LocalDate
+    private static void writeDate(DataBuffer buffer, LocalDate date) {
+        if (date == null) {
+            buffer.write(NULL);
+            return;
+        }
+        if (date.getYear() < 0 || date.getYear() > 9999) {
+            writeString(buffer, date.toString());
+            return;
+        }
+        buffer.write((byte) '"');
+        writeDigits(buffer, date.getYear(), 4);
+        buffer.write((byte) '-');
+        writeDigits(buffer, date.getMonthValue(), 2);
+        buffer.write((byte) '-');
+        writeDigits(buffer, date.getDayOfMonth(), 2);
+        buffer.write((byte) '"');
+    }
+
+    // HH:mm, with :ss only when non-zero, as LocalTime.toString and Jackson write it
+    private static void writeTime(DataBuffer buffer, LocalTime time) {
+        if (time == null) {
+            buffer.write(NULL);
+            return;
+        }
+        if (time.getNano() != 0) {
+            writeString(buffer, time.toString());
+            return;
+        }
+        buffer.write((byte) '"');
+        writeDigits(buffer, time.getHour(), 2);
+        buffer.write((byte) ':');
+        writeDigits(buffer, time.getMinute(), 2);
+        if (time.getSecond() != 0) {
+            buffer.write((byte) ':');
+            writeDigits(buffer, time.getSecond(), 2);
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeStatus(DataBuffer buffer, BookingStatus status) {
+        buffer.write(status != null ? QUOTED_STATUS[status.getCode()] : NULL);
+    }
+
+    private static void writeDigits(DataBuffer buffer, int value, int width) {
+        for (int divisor = (int) Math.pow(10, width - 1); divisor > 0; divisor /= 10) {
+            buffer.write((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    // ASCII is written byte by byte; anything else goes through the UTF-8 encoder
+    static void writeString(DataBuffer buffer, String value) {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                buffer.write((byte) '\\');
+                buffer.write((byte) c);
+            } else if (c < 0x20) {
+                writeControl(buffer, c);
+            } else if (c < 0x80) {
+                buffer.write((byte) c);
+            } else {
+                int end = i + 1;
+                while (end < value.length() && value.charAt(end) >= 0x80) {
+                    end++;
+                }
+                buffer.write(value.substring(i, end), StandardCharsets.UTF_8);
+                i = end - 1;
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeControl(DataBuffer buffer, char c) {
+        buffer.write((byte) '\\');
+        switch (c) {
+            case '\n' -> buffer.write((byte) 'n');
+            case '\r' -> buffer.write((byte) 'r');
+            case '\t' -> buffer.write((byte) 't');
+            case '\b' -> buffer.write((byte) 'b');
+            case '\f' -> buffer.write((byte) 'f');
+            default -> {
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write((byte) Character.forDigit(c >> 4, 16));
+                buffer.write((byte) Character.forDigit(c & 0xF, 16));
+            }
+        }
+    }
+
+    private static byte[][] quotedStatusNames() {
+        int maxCode = 0;
+        for (BookingStatus status : BookingStatus.values()) {
+            maxCode = Math.max(maxCode, status.getCode());
+        }
+        byte[][] names = new byte[maxCode + 1][];
+        for (BookingStatus status : BookingStatus.values()) {
+            names[status.getCode()] = ascii("\"" + status.name() + "\"");
+        }
+        return names;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.BookingService.Infrastructure.codec;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+// Custom codecs are consulted before Jackson, so BookingResponseDTO bodies use BookingJsonEncoder
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new BookingJsonEncoder());
+    }
+}
@@ -4,16 +4,29 @@ package com.example.BookingService.Infrastructure.controller;
 
 import com.example.BookingService.Domain.dto.BookingRequestDTO;
 import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.dto.BookingSearchPageDTO;
+import com.example.BookingService.Domain.dto.CarBookingLookupDTO;
+import com.example.BookingService.Domain.dto.CarBookingLookupRequestDTO;
+import com.example.BookingService.Domain.model.BookingSearchCriteria;
+import com.example.BookingService.Domain.model.BookingStatus;
 import com.example.BookingService.Domain.service.BookingServiceInterface;
+import com.example.BookingService.Infrastructure.ratelimit.RateLimiter;
+import com.example.BookingService.Infrastructure.service.BookingExportService;
+import com.example.BookingService.Infrastructure.service.BookingSearchService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.LocalDate;
+import java.time.LocalTime;
 
 @RequiredArgsConstructor
 @RestController
@@ -21,22 +34,84 @@ import java.time.LocalDate;
 public class BookingController {
 
     private final BookingServiceInterface bookingService;
+    private final RateLimiter rateLimiter;
+    private final BookingExportService bookingExportService;
+    private final BookingSearchService bookingSearchService;
 
 
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
-    public Mono<BookingResponseDTO> createBooking(@RequestBody BookingRequestDTO request) {
+    public Mono<BookingResponseDTO> createBooking(@RequestBody BookingRequestDTO request, ServerWebExchange exchange) {
+        if (!rateLimiter.tryAcquireCar(exchange, request.getCar_id())) {
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many booking requests for car ID " + request.getCar_id()
+            ));
+        }
         return bookingService.createBooking(request);
     }
 
-    @GetMapping("/car/{carId}")
+    @GetMapping(value = "/car/{carId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
     public Flux<BookingResponseDTO> getBookingsByCarId(@PathVariable Long carId) {
         return bookingService.getBookingsByCarId(carId);
     }
 
+    // Last and pending booking for many cars in one round trip (fleet dashboards)
+    @PostMapping(value = "/lookup", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CarBookingLookupDTO> lookupBookings(@RequestBody CarBookingLookupRequestDTO request) {
+        return bookingService.lookupBookingsByCarIds(request.getCar_ids());
+    }
+
+    // Staff search; supported filter shapes are listed in BookingSearchRepository
+    @GetMapping("/search")
+    public Mono<BookingSearchPageDTO> searchBookings(
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) Long serviceId,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + BookingSearchService.DEFAULT_LIMIT) int limit
+    ) {
+        BookingSearchCriteria criteria = BookingSearchCriteria.builder()
+                .branchId(branchId)
+                .serviceId(serviceId)
+                .status(status)
+                .from(from)
+                .to(to)
+                .limit(limit)
+                .build();
+        return bookingSearchService.search(criteria, after);
+    }
+
+    // Bulk extract for finance; rows are streamed as they are read, never collected
+    @GetMapping("/export")
+    public Mono<Void> exportBookings(
+            @RequestParam Long branchId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = BookingExportService.CSV) String format,
+            ServerHttpResponse response
+    ) {
+        if (!BookingExportService.CSV.equals(format) && !BookingExportService.NDJSON.equals(format)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson."));
+        }
+        if (to.isBefore(from)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must not be before 'from'."));
+        }
+
+        boolean csv = BookingExportService.CSV.equals(format);
+        response.getHeaders().setContentType(csv ? new MediaType("text", "csv") : MediaType.APPLICATION_NDJSON);
+        response.getHeaders().set(HttpHeaders.CONTENT_DISPOSITION, String.format(
+                "attachment; filename=\"bookings-%d-%s-%s.%s\"", branchId, from, to, format));
+        return response.writeWith(
+                bookingExportService.export(branchId, from, to, format, response.bufferFactory()));
+    }
+
     @Data
     private static class RescheduleRequest {
         private LocalDate booking_date;
+        private LocalTime slot_start;
         private String newComments;
     }
 
@@ -50,6 +125,7 @@ public class BookingController {
         return bookingService.rescheduleBooking(
                 oldBookingId,
                 request.getBooking_date(),
+                request.getSlot_start(),
                 request.getNewComments()
         );
     }
@@ -0,0 +1,50 @@
+package com.example.BookingService.Infrastructure.controller;
+
+import com.example.BookingService.Domain.dto.BranchCalendarDTO;
+import com.example.BookingService.Domain.dto.BranchHolidayDTO;
+import com.example.BookingService.Infrastructure.service.BranchCalendarService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/branches/{branchId}/calendar")
+public class BranchCalendarController {
+
+    private final BranchCalendarService branchCalendarService;
+
+    @GetMapping
+    public Mono<BranchCalendarDTO> getCalendar(@PathVariable Long branchId) {
+        return branchCalendarService.getCalendar(branchId);
+    }
+
+    // Replaces the weekly pattern, e.g. ["FRIDAY", "SATURDAY"]
+    @PutMapping("/weekly")
+    public Mono<BranchCalendarDTO> setWeeklyClosedDays(@PathVariable Long branchId, @RequestBody List<DayOfWeek> closedDays) {
+        return branchCalendarService.setWeeklyClosedDays(branchId, closedDays);
+    }
+
+    @PostMapping("/holidays")
+    public Mono<BranchCalendarDTO> addHoliday(@PathVariable Long branchId, @RequestBody BranchHolidayDTO holiday) {
+        if (holiday.getDate() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Holiday date is required."));
+        }
+        return branchCalendarService.addHoliday(branchId, holiday);
+    }
+
+    @DeleteMapping("/holidays/{date}")
+    public Mono<BranchCalendarDTO> removeHoliday(
+            @PathVariable Long branchId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return branchCalendarService.removeHoliday(branchId, date);
+    }
+}
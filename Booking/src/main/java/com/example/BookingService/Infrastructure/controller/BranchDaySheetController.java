@@ -0,0 +1,28 @@
+package com.example.BookingService.Infrastructure.controller;
+
+import com.example.BookingService.Domain.dto.BranchDaySheetDTO;
+import com.example.BookingService.Infrastructure.service.BranchDaySheetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/branches/{branchId}/day")
+public class BranchDaySheetController {
+
+    private final BranchDaySheetService branchDaySheetService;
+
+    // Full sheet, or with ?since=<version> only the bookings changed after that version
+    @GetMapping("/{date}/bookings")
+    public Mono<BranchDaySheetDTO> getDaySheet(
+            @PathVariable Long branchId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String since
+    ) {
+        return branchDaySheetService.getDaySheet(branchId, date, since);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.BookingService.Infrastructure.controller;
+
+import com.example.BookingService.Domain.dto.Customer360DTO;
+import com.example.BookingService.Infrastructure.aggregation.Customer360Service;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/customer-360")
+public class Customer360Controller {
+
+    private final Customer360Service customer360Service;
+
+    @GetMapping("/phone/{phone}")
+    public Mono<Customer360DTO> getByPhone(@PathVariable String phone) {
+        return customer360Service.getByPhone(phone);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.BookingService.Infrastructure.controller;
+
+import com.example.BookingService.Domain.dto.UtilizationReportDTO;
+import com.example.BookingService.Infrastructure.service.BookingRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final BookingRollupService bookingRollupService;
+
+    // Streams one row per service and day; cost grows with days, not bookings
+    @GetMapping(value = "/utilization/{branchId}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<UtilizationReportDTO> getUtilization(
+            @PathVariable Long branchId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if (to.isBefore(from)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must not be before 'from'."));
+        }
+        return bookingRollupService.getUtilization(branchId, from, to);
+    }
+
+    @PostMapping("/utilization/rebuild")
+    public Mono<Integer> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return bookingRollupService.rebuild(from, to);
+    }
+}
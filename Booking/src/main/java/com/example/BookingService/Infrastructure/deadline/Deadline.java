@@ -0,0 +1,47 @@
+package com.example.BookingService.Infrastructure.deadline;
+
+import org.springframework.web.server.ResponseStatusException;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+
+// Point in time by which the client stops waiting for a request. Set once per request by
+// DeadlineFilter and read from the Reactor context wherever work would start or wait.
+public final class Deadline {
+
+    public static final String CONTEXT_KEY = Deadline.class.getName();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    // null when the work does not belong to a request with a deadline (e.g. scheduled jobs)
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    public Context toContext() {
+        return Context.of(CONTEXT_KEY, this);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    public static ResponseStatusException exceeded() {
+        return new ResponseStatusException(GATEWAY_TIMEOUT, "Request deadline exceeded.");
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.BookingService.Infrastructure.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DeadlineConfig {
+
+    // Every consumer of the ConnectionFactory (repositories, DatabaseClient, transactions)
+    // gets the deadline-aware wrapper
+    @Bean
+    public static BeanPostProcessor deadlineConnectionFactoryPostProcessor(
+            ObjectProvider<DeadlineProperties> properties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionFactory connectionFactory
+                        && !(bean instanceof DeadlineConnectionFactory)
+                        && "connectionFactory".equals(beanName)
+                        && properties.getObject().isEnabled()) {
+                    return new DeadlineConnectionFactory(connectionFactory, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public DeadlineExchangeFilter deadlineExchangeFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        return new DeadlineExchangeFilter(properties.getHeader(), meterRegistry);
+    }
+}
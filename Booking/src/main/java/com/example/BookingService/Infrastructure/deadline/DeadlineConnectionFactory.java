@@ -0,0 +1,61 @@
+package com.example.BookingService.Infrastructure.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+// Refuses to hand out a connection for work whose deadline has passed, and gives up waiting
+// for a pooled connection when the deadline passes during the wait. Transactions take their
+// connection here too, so expired work never begins a transaction.
+public class DeadlineConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DeadlineConnectionFactory(ConnectionFactory delegate, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return Mono.from(delegate.create());
+            }
+            if (deadline.isExpired()) {
+                return expired("connection");
+            }
+            return Mono.<Connection>from(delegate.create())
+                    .timeout(deadline.remaining(), Mono.defer(() -> expired("connection-wait")));
+        });
+    }
+
+    private Mono<Connection> expired(String stage) {
+        meterRegistry.ifAvailable(registry -> registry.counter("booking.deadline.expired", "stage", stage).increment());
+        return Mono.error(Deadline.exceeded());
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    // Pool or shard router behind the deadline check
+    public static ConnectionFactory unwrap(ConnectionFactory connectionFactory) {
+        return connectionFactory instanceof DeadlineConnectionFactory deadlineAware
+                ? deadlineAware.unwrap()
+                : connectionFactory;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.BookingService.Infrastructure.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+// Passes the remaining budget on to downstream services and never starts a call
+// after the deadline; the call is also cut off when the deadline passes.
+public class DeadlineExchangeFilter implements ExchangeFilterFunction {
+
+    private final String header;
+    private final MeterRegistry meterRegistry;
+
+    public DeadlineExchangeFilter(String header, MeterRegistry meterRegistry) {
+        this.header = header;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+            if (deadline.isExpired()) {
+                return expired();
+            }
+            ClientRequest withBudget = ClientRequest.from(request)
+                    .header(header, String.valueOf(deadline.remaining().toMillis()))
+                    .build();
+            return next.exchange(withBudget)
+                    .timeout(deadline.remaining(), Mono.defer(this::expired));
+        });
+    }
+
+    private Mono<ClientResponse> expired() {
+        meterRegistry.counter("booking.deadline.expired", "stage", "outbound").increment();
+        return Mono.error(Deadline.exceeded());
+    }
+}
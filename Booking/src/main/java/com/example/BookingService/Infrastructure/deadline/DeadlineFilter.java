@@ -0,0 +1,72 @@
+package com.example.BookingService.Infrastructure.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+// Starts the request deadline from the caller's timeout header (or the default), puts it in
+// the Reactor context and cancels the whole request with 504 once it has passed, which
+// releases the connection and any pool acquisition still waiting.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DeadlineFilter implements WebFilter {
+
+    private final DeadlineProperties properties;
+    private final List<PathPattern> excluded;
+    private final Counter expiredCounter;
+
+    public DeadlineFilter(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.excluded = properties.getExcludedPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.expiredCounter = meterRegistry.counter("booking.deadline.expired", "stage", "request");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled() || isExcluded(exchange)) {
+            return chain.filter(exchange);
+        }
+        Duration budget = budget(exchange.getRequest().getHeaders().getFirst(properties.getHeader()));
+        Deadline deadline = Deadline.after(budget);
+        return chain.filter(exchange)
+                .timeout(budget, Mono.defer(() -> {
+                    expiredCounter.increment();
+                    return Mono.error(Deadline.exceeded());
+                }))
+                .contextWrite(deadline.toContext());
+    }
+
+    private Duration budget(String header) {
+        if (header != null) {
+            try {
+                long millis = Long.parseLong(header.trim());
+                if (millis >= 0) {
+                    Duration requested = Duration.ofMillis(millis);
+                    return requested.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : requested;
+                }
+            } catch (NumberFormatException e) {
+                // fall back to the default budget
+            }
+        }
+        return properties.getDefaultTimeout();
+    }
+
+    private boolean isExcluded(ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        return excluded.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.BookingService.Infrastructure.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "booking.deadline")
+public class DeadlineProperties {
+
+    private boolean enabled = true;
+    // Remaining budget in milliseconds, sent by the caller and passed on to downstream calls
+    private String header = "X-Request-Timeout-Ms";
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    private Duration maxTimeout = Duration.ofSeconds(60);
+    // Long-running streams that must not be cut off
+    private List<String> excludedPaths = new ArrayList<>(List.of("/api/bookings/export", "/actuator/**"));
+}
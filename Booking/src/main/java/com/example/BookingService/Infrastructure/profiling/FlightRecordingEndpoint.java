@@ -0,0 +1,52 @@
+package com.example.BookingService.Infrastructure.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// /actuator/flightrecording: GET lists the dumps, POST {"minutes": 5} dumps the last minutes of
+// the continuous recording. Guarded by ProfilingAccessFilter.
+@Component
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final int DEFAULT_MINUTES = 5;
+
+    private final ContinuousRecording continuousRecording;
+
+    public FlightRecordingEndpoint(ContinuousRecording continuousRecording) {
+        this.continuousRecording = continuousRecording;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> dumps() {
+        return continuousRecording.dumps().stream().map(this::describe).toList();
+    }
+
+    @WriteOperation
+    public Map<String, Object> dump(@OptionalParameter Integer minutes) {
+        int window = minutes != null && minutes > 0 ? minutes : DEFAULT_MINUTES;
+        return describe(continuousRecording.dump(Duration.ofMinutes(window), "manual"));
+    }
+
+    private Map<String, Object> describe(Path dump) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("file", dump.toAbsolutePath().toString());
+        try {
+            description.put("bytes", Files.size(dump));
+        } catch (IOException e) {
+            description.put("bytes", null);
+        }
+        return description;
+    }
+}
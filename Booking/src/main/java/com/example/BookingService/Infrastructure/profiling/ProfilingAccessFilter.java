@@ -0,0 +1,51 @@
+package com.example.BookingService.Infrastructure.profiling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+
+// Times every request for the latency trigger, and only lets callers presenting the profiling
+// token reach the flight recording endpoint. Without a configured token the endpoint is closed.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProfilingAccessFilter implements WebFilter {
+
+    private static final String ENDPOINT_PATH = "/actuator/flightrecording";
+    private static final String TOKEN_HEADER = "X-Profiling-Token";
+
+    private final ContinuousRecording continuousRecording;
+    private final byte[] token;
+
+    public ProfilingAccessFilter(
+            ContinuousRecording continuousRecording,
+            @Value("${booking.profiling.token:}") String token) {
+        this.continuousRecording = continuousRecording;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (exchange.getRequest().getPath().pathWithinApplication().value().startsWith(ENDPOINT_PATH)) {
+            String presented = exchange.getRequest().getHeaders().getFirst(TOKEN_HEADER);
+            if (token.length == 0 || presented == null
+                    || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+                return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Profiling token required."));
+            }
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> continuousRecording.onRequestCompleted(Duration.ofNanos(System.nanoTime() - start)));
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.BookingService.Infrastructure.ratelimit;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+// Rejects over-limit calls with 429 before they reach a controller,
+// so a flooding client costs no transaction or database work.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter implements WebFilter {
+
+    public static final String MATCHED_LIMIT = RateLimitFilter.class.getName() + ".MATCHED_LIMIT";
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final List<PathPattern> patterns;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.patterns = properties.getEndpoints().stream()
+                .map(limit -> PathPatternParser.defaultInstance.parse(limit.getPath()))
+                .toList();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        RateLimitProperties.EndpointLimit limit = match(request);
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+
+        return clientId(exchange).flatMap(client -> {
+            String key = limit.getMethod() + " " + limit.getPath() + " client:" + client;
+            if (!rateLimiter.tryAcquire(key, limit.getClientPerSecond(), limit.getClientBurst())) {
+                return reject(exchange.getResponse());
+            }
+            exchange.getAttributes().put(MATCHED_LIMIT, limit);
+            return chain.filter(exchange);
+        });
+    }
+
+    private RateLimitProperties.EndpointLimit match(ServerHttpRequest request) {
+        PathContainer path = request.getPath().pathWithinApplication();
+        List<RateLimitProperties.EndpointLimit> endpoints = properties.getEndpoints();
+        for (int i = 0; i < endpoints.size(); i++) {
+            RateLimitProperties.EndpointLimit limit = endpoints.get(i);
+            if (request.getMethod().matches(limit.getMethod()) && patterns.get(i).matches(path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    // The authenticated principal if there is one, else the client header when a trusted proxy
+    // set it, else the remote address. A header from anyone else is ignored: a caller could pick
+    // a fresh value per request and never be limited.
+    private Mono<String> clientId(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(principal -> "principal:" + principal.getName())
+                .defaultIfEmpty(clientIdOf(exchange.getRequest()));
+    }
+
+    String clientIdOf(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        String address = remote == null ? null
+                : remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+        if (address != null && properties.getTrustedProxies().contains(address)) {
+            String client = request.getHeaders().getFirst(properties.getClientHeader());
+            if (client != null && !client.isBlank()) {
+                return "header:" + client;
+            }
+        }
+        return address != null ? "address:" + address : "unknown";
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.BookingService.Infrastructure.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "booking.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Header that identifies the calling integration. It is only read on requests whose remote
+    // address is one of the trusted proxies; every other request is keyed on its remote address.
+    private String clientHeader = "X-Client-Id";
+    private List<String> trustedProxies = new ArrayList<>();
+    // Once this many buckets are active, calls from new keys are rejected
+    private int maxBuckets = 100_000;
+    private List<EndpointLimit> endpoints = new ArrayList<>();
+
+    @Data
+    public static class EndpointLimit {
+        private String method;
+        private String path;
+        // A rate of 0 disables that key for the endpoint
+        private double clientPerSecond;
+        private int clientBurst = 1;
+        private double carPerSecond;
+        private int carBurst = 1;
+    }
+}
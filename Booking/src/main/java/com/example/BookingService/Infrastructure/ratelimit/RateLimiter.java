@@ -0,0 +1,68 @@
+package com.example.BookingService.Infrastructure.ratelimit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets keyed by endpoint + client or endpoint + car.
+// The map is bounded: once full, buckets that have refilled are evicted, which loses no state.
+// The sweep runs at most once per EVICTION_INTERVAL; if it frees nothing, new keys are rejected
+// until buckets go idle, so a flood of distinct keys can neither grow the map nor force a scan
+// per request.
+@Component
+public class RateLimiter {
+
+    private static final long EVICTION_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction = new AtomicLong(System.nanoTime());
+    private final int maxBuckets;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.maxBuckets = properties.getMaxBuckets();
+    }
+
+    public boolean tryAcquire(String key, double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                evictIdle(now);
+                if (buckets.size() >= maxBuckets) {
+                    return false;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    // Per-car check for endpoints whose car id is only known after the body is read.
+    // Uses the limit the RateLimitFilter matched for this request, if any.
+    public boolean tryAcquireCar(ServerWebExchange exchange, Long carId) {
+        RateLimitProperties.EndpointLimit limit = exchange.getAttribute(RateLimitFilter.MATCHED_LIMIT);
+        if (limit == null || carId == null) {
+            return true;
+        }
+        return tryAcquire(limit.getMethod() + " " + limit.getPath() + " car:" + carId,
+                limit.getCarPerSecond(), limit.getCarBurst());
+    }
+
+    private void evictIdle(long now) {
+        long next = nextEviction.get();
+        if (now - next >= 0 && nextEviction.compareAndSet(next, now + EVICTION_INTERVAL)) {
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
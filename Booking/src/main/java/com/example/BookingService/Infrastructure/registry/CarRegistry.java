@@ -0,0 +1,148 @@
+package com.example.BookingService.Infrastructure.registry;
+
+import com.example.BookingService.Domain.dto.CarChangeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Local read model of the customer car ids owned by the demo service.
+// Lookups go through a Bloom filter and then an exact set, so validating a car needs no network hop.
+// Change ids are taken when a demo transaction writes but become visible when it commits, so a
+// slow transaction's change can show up behind later ids. When the sequence jumps over ids, they
+// are remembered as missing and the feed is re-read from the oldest one until it arrives or
+// late-commit-grace passes (a rolled-back transaction never fills its id). With no ids missing,
+// the feed is read from the sequence itself, so a quiet poll is one empty request.
+@Component
+public class CarRegistry {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // Bounds the missing-id map if the sequence jumps far, e.g. after a large rolled-back batch
+    private static final int MAX_MISSING = 10_000;
+
+    private final boolean validationEnabled;
+    private final long replayWindow;
+    private final long lateCommitGraceNanos;
+    private volatile State state;
+
+    public CarRegistry(
+            @Value("${booking.car-registry.enabled:true}") boolean validationEnabled,
+            @Value("${booking.car-registry.replay-window:100}") long replayWindow,
+            @Value("${booking.car-registry.late-commit-grace:1m}") Duration lateCommitGrace) {
+        this.validationEnabled = validationEnabled;
+        this.replayWindow = replayWindow;
+        this.lateCommitGraceNanos = lateCommitGrace.toNanos();
+    }
+
+    public boolean isLoaded() {
+        return state != null;
+    }
+
+    public long getSequence() {
+        State current = state;
+        return current != null ? current.sequence : 0L;
+    }
+
+    // Where the change feed is read from: just before the oldest id still missing, else the sequence
+    public synchronized long getReplayFrom() {
+        State current = state;
+        if (current == null) {
+            return 0L;
+        }
+        long now = System.nanoTime();
+        // Ids are added in increasing order over time, so the oldest entries come first
+        while (!current.missing.isEmpty() && now - current.missing.firstEntry().getValue() >= lateCommitGraceNanos) {
+            current.missing.pollFirstEntry();
+        }
+        return current.missing.isEmpty() ? current.sequence : current.missing.firstKey() - 1;
+    }
+
+    public long getLoadedAtNanos() {
+        State current = state;
+        return current != null ? current.loadedAtNanos : 0L;
+    }
+
+    public boolean contains(Long carId) {
+        State current = state;
+        if (current == null || carId == null) {
+            return false;
+        }
+        return current.bloom.mightContain(carId) && current.carIds.contains(carId);
+    }
+
+    // Until the first snapshot arrives every car is accepted, so a demo outage at startup does not block bookings
+    public boolean accepts(Long carId) {
+        return !validationEnabled || !isLoaded() || contains(carId);
+    }
+
+    // Replaces the registry with a full snapshot. The snapshot's sequence is read before its ids,
+    // so the replay-window ids below it are treated as missing and re-applied in id order: that
+    // keeps the snapshot's state and adds what committed too late to be in it.
+    public synchronized void load(long sequence, Collection<Long> carIds) {
+        BloomFilter bloom = new BloomFilter(carIds.size() * 2, FALSE_POSITIVE_RATE);
+        Set<Long> ids = ConcurrentHashMap.newKeySet(carIds.size() * 2);
+        for (Long carId : carIds) {
+            bloom.put(carId);
+            ids.add(carId);
+        }
+        long now = System.nanoTime();
+        State loaded = new State(sequence, bloom, ids, now);
+        for (long id = Math.max(1L, sequence - replayWindow + 1); id <= sequence; id++) {
+            loaded.missing.put(id, now);
+        }
+        state = loaded;
+    }
+
+    // Applies one change-feed entry. An entry at or below the sequence is applied only if its id
+    // is still missing, so re-read entries are never applied twice; ids skipped by a newer entry
+    // become missing.
+    public synchronized void apply(CarChangeDTO change) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        long id = change.getId();
+        if (id <= current.sequence) {
+            if (current.missing.remove(id) == null) {
+                return;
+            }
+        } else {
+            long now = System.nanoTime();
+            for (long skipped = Math.max(current.sequence + 1, id - MAX_MISSING); skipped < id; skipped++) {
+                current.missing.put(skipped, now);
+            }
+            while (current.missing.size() > MAX_MISSING) {
+                current.missing.pollFirstEntry();
+            }
+            current.sequence = id;
+        }
+        if (CarChangeDTO.REMOVED.equals(change.getOperation())) {
+            // the Bloom filter keeps the id; the exact set has the final say
+            current.carIds.remove(change.getCarId());
+        } else {
+            current.bloom.put(change.getCarId());
+            current.carIds.add(change.getCarId());
+        }
+    }
+
+    private static final class State {
+        private volatile long sequence;
+        private final BloomFilter bloom;
+        private final Set<Long> carIds;
+        // Change ids below the sequence not seen yet, with when they went missing; guarded by the registry
+        private final NavigableMap<Long, Long> missing = new TreeMap<>();
+        private final long loadedAtNanos;
+
+        private State(long sequence, BloomFilter bloom, Set<Long> carIds, long loadedAtNanos) {
+            this.sequence = sequence;
+            this.bloom = bloom;
+            this.carIds = carIds;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.BookingService.Infrastructure.registry;
+
+import com.example.BookingService.Domain.dto.CarChangeDTO;
+import com.example.BookingService.Domain.dto.CarRegistrySnapshotDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Where the car registry is replicated from; a local stub can stand in for the demo service in tests.
+public interface CarRegistrySource {
+
+    Mono<CarRegistrySnapshotDTO> snapshot();
+
+    Flux<CarChangeDTO> changesAfter(long sequence, int limit);
+}
@@ -0,0 +1,69 @@
+package com.example.BookingService.Infrastructure.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Keeps the CarRegistry current: a full snapshot first, then the incremental change feed, read
+// from the registry's replay point on every poll (the sequence, or just before an id it is still
+// waiting for). A fresh snapshot is taken every resnapshot-interval as a backstop for changes
+// that committed later than the late-commit grace allows.
+@Slf4j
+@Component
+public class CarRegistrySync {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final CarRegistry carRegistry;
+    private final CarRegistrySource source;
+    private final Duration timeout;
+    private final Duration resnapshotInterval;
+
+    public CarRegistrySync(
+            CarRegistry carRegistry,
+            CarRegistrySource source,
+            @Value("${booking.car-registry.timeout:30s}") Duration timeout,
+            @Value("${booking.car-registry.resnapshot-interval:1h}") Duration resnapshotInterval) {
+        this.carRegistry = carRegistry;
+        this.source = source;
+        this.timeout = timeout;
+        this.resnapshotInterval = resnapshotInterval;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.car-registry.poll-interval:5s}")
+    public void poll() {
+        try {
+            sync().block(timeout);
+        } catch (RuntimeException e) {
+            log.warn("Car registry sync failed: {}", e.getMessage());
+        }
+    }
+
+    public Mono<Void> sync() {
+        if (!carRegistry.isLoaded()
+                || System.nanoTime() - carRegistry.getLoadedAtNanos() >= resnapshotInterval.toNanos()) {
+            return source.snapshot()
+                    .flatMap(snapshot -> {
+                        carRegistry.load(snapshot.getSequence(), snapshot.getCarIds());
+                        log.info("Car registry loaded {} cars at sequence {}",
+                                snapshot.getCarIds().size(), snapshot.getSequence());
+                        return follow(carRegistry.getReplayFrom());
+                    });
+        }
+        return follow(carRegistry.getReplayFrom());
+    }
+
+    private Mono<Void> follow(long after) {
+        return source.changesAfter(after, BATCH_SIZE)
+                .doOnNext(carRegistry::apply)
+                .collectList()
+                // a full batch means more changes are waiting
+                .flatMap(batch -> batch.size() == BATCH_SIZE
+                        ? follow(batch.get(batch.size() - 1).getId())
+                        : Mono.empty());
+    }
+}
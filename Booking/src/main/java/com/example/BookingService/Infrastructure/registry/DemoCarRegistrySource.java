@@ -0,0 +1,49 @@
+package com.example.BookingService.Infrastructure.registry;
+
+import com.example.BookingService.Domain.dto.CarChangeDTO;
+import com.example.BookingService.Domain.dto.CarRegistrySnapshotDTO;
+import com.example.BookingService.Infrastructure.deadline.DeadlineExchangeFilter;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reads the snapshot and change feed exposed by the demo service's CustomerCarController
+@Component
+public class DemoCarRegistrySource implements CarRegistrySource {
+
+    private final WebClient webClient;
+
+    public DemoCarRegistrySource(
+            @Value("${booking.car-registry.base-url:http://localhost:8083}") String baseUrl,
+            DeadlineExchangeFilter deadlineFilter,
+            ObservationRegistry observationRegistry) {
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .observationRegistry(observationRegistry)
+                .filter(deadlineFilter)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(64 * 1024 * 1024))
+                .build();
+    }
+
+    @Override
+    public Mono<CarRegistrySnapshotDTO> snapshot() {
+        return webClient.get()
+                .uri("/api/customer-cars/ids")
+                .retrieve()
+                .bodyToMono(CarRegistrySnapshotDTO.class);
+    }
+
+    @Override
+    public Flux<CarChangeDTO> changesAfter(long sequence, int limit) {
+        return webClient.get()
+                .uri(uri -> uri.path("/api/customer-cars/changes")
+                        .queryParam("after", sequence)
+                        .queryParam("limit", limit)
+                        .build())
+                .retrieve()
+                .bodyToFlux(CarChangeDTO.class);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// A reminder due `before` the booked slot starts
+public record BookingReminder(long bookingId, long carId, long branchId, LocalDateTime bookingStart, Duration before) {
+}
@@ -0,0 +1,231 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends the reminders before each PENDING booking from an in-memory timing wheel instead of
+// polling the booking table. The wheel holds bookings starting within the horizon; the window
+// slides forward with one indexed range query per refresh, and bookings created, cancelled or
+// rescheduled inside it update the wheel directly. The booking is re-read before delivery, so
+// a reminder for a booking changed elsewhere is dropped rather than sent.
+// Every instance holds the same window, so each reminder is claimed with a row in
+// booking_reminder_claim before it is sent; the instances that lose the insert skip it. The
+// claim comes before the send, so a reminder whose delivery fails is not retried by another
+// instance: at most once, as with a single instance.
+@Slf4j
+@Component
+public class BookingReminderScheduler {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final BookingRepository bookingRepository;
+    private final BookingShards bookingShards;
+    private final ReminderSink sink;
+    private final ReminderProperties properties;
+    private final TimingWheel<BookingReminder> wheel;
+    private final Map<Long, List<TimingWheel.Timer<BookingReminder>>> timersByBooking = new HashMap<>();
+    // Bookings starting up to here are in the wheel; null until the first load
+    private LocalDateTime loadedUntil;
+
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final Counter deliveredCounter;
+    private final Counter staleCounter;
+    private final Counter claimedElsewhereCounter;
+    private final Counter failedCounter;
+
+    public BookingReminderScheduler(
+            BookingRepository bookingRepository,
+            BookingShards bookingShards,
+            ReminderSink sink,
+            ReminderProperties properties,
+            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingShards = bookingShards;
+        this.sink = sink;
+        this.properties = properties;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+        if (wheel.horizonMillis() - System.currentTimeMillis() < properties.getHorizon().plus(properties.getRefreshInterval()).toMillis()) {
+            throw new IllegalStateException("booking.reminders.horizon does not fit the timing wheel; increase the tick.");
+        }
+        this.deliveredCounter = meterRegistry.counter("booking.reminders.delivered");
+        this.staleCounter = meterRegistry.counter("booking.reminders.stale");
+        this.claimedElsewhereCounter = meterRegistry.counter("booking.reminders.claimed.elsewhere");
+        this.failedCounter = meterRegistry.counter("booking.reminders.failed");
+        meterRegistry.gauge("booking.reminders.scheduled", scheduled);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.reminders.tick:1s}")
+    public void tick() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<BookingReminder> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), reminder -> {
+                due.add(reminder);
+                forgetFired(reminder.bookingId());
+            });
+            scheduled.set(wheel.size());
+        }
+        if (!due.isEmpty()) {
+            Flux.fromIterable(due).concatMap(this::deliver).subscribe();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.reminders.refresh-interval:10m}")
+    public void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            load().block(properties.getLoadTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Reminder window refresh failed: {}", e.getMessage());
+        }
+        try {
+            deleteOldClaims().block(properties.getLoadTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Reminder claim cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    // Claims only guard reminders that are due around now, so old ones can go
+    Mono<Void> deleteOldClaims() {
+        Instant before = Instant.now().minus(properties.getClaimRetention());
+        return bookingShards.onEachShard(() -> bookingRepository.deleteReminderClaimsBefore(before))
+                .then();
+    }
+
+    // Slides the window to now + horizon. The new bound is published before the query runs, so
+    // bookings created meanwhile schedule themselves; the query skips the ones already in the wheel.
+    Mono<Void> load() {
+        LocalDateTime until = LocalDateTime.now(properties.getZone()).plus(properties.getHorizon());
+        LocalDateTime from;
+        synchronized (this) {
+            from = loadedUntil != null ? loadedUntil : LocalDateTime.now(properties.getZone());
+            if (!until.isAfter(from)) {
+                return Mono.empty();
+            }
+            loadedUntil = until;
+        }
+        return bookingShards.onEachShard(() -> bookingRepository.findPendingBetween(from.toLocalDate(), until.toLocalDate()))
+                .filter(booking -> startOf(booking).isAfter(from))
+                .doOnNext(this::schedule)
+                .count()
+                .doOnNext(count -> log.debug("Reminder window moved to {}: {} bookings", until, count))
+                .doOnError(e -> {
+                    synchronized (this) {
+                        if (until.equals(loadedUntil)) {
+                            loadedUntil = from;
+                        }
+                    }
+                })
+                .then();
+    }
+
+    public void onCreated(BookingEntity booking) {
+        if (properties.isEnabled()) {
+            schedule(booking);
+        }
+    }
+
+    public void onCancelled(Long bookingId) {
+        if (properties.isEnabled()) {
+            unschedule(bookingId);
+        }
+    }
+
+    public void onRescheduled(Long oldBookingId, BookingEntity newBooking) {
+        if (properties.isEnabled()) {
+            unschedule(oldBookingId);
+            schedule(newBooking);
+        }
+    }
+
+    private synchronized void schedule(BookingEntity booking) {
+        LocalDateTime start = startOf(booking);
+        // Bookings past the window are picked up when it slides over them
+        if (loadedUntil == null || start.isAfter(loadedUntil) || timersByBooking.containsKey(booking.getBooking_id())) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<TimingWheel.Timer<BookingReminder>> timers = new ArrayList<>(properties.getOffsets().size());
+        for (Duration before : properties.getOffsets()) {
+            long due = start.minus(before).atZone(properties.getZone()).toInstant().toEpochMilli();
+            if (due > now) {
+                timers.add(wheel.schedule(due, new BookingReminder(
+                        booking.getBooking_id(), booking.getCarId(), booking.getBranch_id(), start, before)));
+            }
+        }
+        if (!timers.isEmpty()) {
+            timersByBooking.put(booking.getBooking_id(), List.copyOf(timers));
+        }
+        scheduled.set(wheel.size());
+    }
+
+    private synchronized void unschedule(Long bookingId) {
+        List<TimingWheel.Timer<BookingReminder>> timers = timersByBooking.remove(bookingId);
+        if (timers != null) {
+            timers.forEach(wheel::cancel);
+            scheduled.set(wheel.size());
+        }
+    }
+
+    // Called under the lock once a timer has left the wheel
+    private void forgetFired(long bookingId) {
+        List<TimingWheel.Timer<BookingReminder>> timers = timersByBooking.get(bookingId);
+        if (timers != null && timers.stream().noneMatch(TimingWheel.Timer::isScheduled)) {
+            timersByBooking.remove(bookingId);
+        }
+    }
+
+    Mono<Void> deliver(BookingReminder reminder) {
+        return bookingRepository.findById(reminder.bookingId())
+                .contextWrite(BookingShards.forBranch(reminder.branchId()))
+                .flatMap(booking -> isCurrent(booking, reminder)
+                        ? claimAndDeliver(reminder)
+                        : Mono.<Void>fromRunnable(staleCounter::increment))
+                .onErrorResume(e -> {
+                    failedCounter.increment();
+                    log.warn("Reminder for booking {} failed: {}", reminder.bookingId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> claimAndDeliver(BookingReminder reminder) {
+        return bookingRepository.claimReminder(reminder.bookingId(), reminder.before().toSeconds())
+                .contextWrite(BookingShards.forBranch(reminder.branchId()))
+                .flatMap(claimed -> claimed > 0
+                        ? sink.deliver(reminder).doOnSuccess(v -> deliveredCounter.increment())
+                        : Mono.<Void>fromRunnable(claimedElsewhereCounter::increment));
+    }
+
+    private boolean isCurrent(BookingEntity booking, BookingReminder reminder) {
+        return booking.getStatus_id() == (long) BookingStatus.PENDING.getCode()
+                && startOf(booking).equals(reminder.bookingStart());
+    }
+
+    private LocalDateTime startOf(BookingEntity booking) {
+        return booking.getBooking_date().atTime(
+                booking.getSlot_start() != null ? booking.getSlot_start() : properties.getDayBookingStart());
+    }
+}
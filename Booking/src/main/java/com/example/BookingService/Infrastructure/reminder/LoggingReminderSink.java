@@ -0,0 +1,19 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+// Local stand-in until a notification channel is wired in
+@Slf4j
+@Component
+public class LoggingReminderSink implements ReminderSink {
+
+    @Override
+    public Mono<Void> deliver(BookingReminder reminder) {
+        log.info("Reminder: booking {} for car {} at branch {} starts {} (in {})",
+                reminder.bookingId(), reminder.carId(), reminder.branchId(),
+                reminder.bookingStart(), reminder.before());
+        return Mono.empty();
+    }
+}
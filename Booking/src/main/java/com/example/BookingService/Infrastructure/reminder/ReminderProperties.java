@@ -0,0 +1,30 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "booking.reminders")
+public class ReminderProperties {
+
+    private boolean enabled = true;
+    // How long before the booked slot each reminder goes out
+    private List<Duration> offsets = new ArrayList<>(List.of(Duration.ofHours(24), Duration.ofHours(2)));
+    // Bookings starting within this window are held in memory; later ones are loaded as it slides
+    private Duration horizon = Duration.ofHours(48);
+    private Duration refreshInterval = Duration.ofMinutes(10);
+    // Wheel resolution: reminders fire at most one tick late
+    private Duration tick = Duration.ofSeconds(1);
+    // Start time used for branches that book by day only
+    private LocalTime dayBookingStart = LocalTime.of(8, 0);
+    private ZoneId zone = ZoneId.systemDefault();
+    private Duration loadTimeout = Duration.ofMinutes(2);
+    // How long a booking_reminder_claim row is kept after its reminder was claimed
+    private Duration claimRetention = Duration.ofDays(1);
+}
@@ -0,0 +1,9 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import reactor.core.publisher.Mono;
+
+// Delivers a due reminder to the customer (SMS, e-mail, push...)
+public interface ReminderSink {
+
+    Mono<Void> deliver(BookingReminder reminder);
+}
@@ -0,0 +1,151 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel. Each level has 2^bits slots; a slot on level n spans 2^(bits*n)
+// ticks. Timers sit in intrusive doubly linked slot lists, so schedule and cancel are O(1),
+// and a timer costs one small node. When the lowest level wraps, the next level's current
+// slot is cascaded down. Not thread-safe: callers synchronize.
+final class TimingWheel<T> {
+
+    static final class Timer<T> {
+        private final T payload;
+        private final long dueTick;
+        private int level = -1;
+        private int slot;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T payload, long dueTick) {
+            this.payload = payload;
+            this.dueTick = dueTick;
+        }
+
+        T payload() {
+            return payload;
+        }
+
+        boolean isScheduled() {
+            return level >= 0;
+        }
+    }
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Timer<T>[][] slots;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int bits, int levels, long startMillis) {
+        if (tickMillis <= 0 || bits < 1 || levels < 1 || (long) bits * levels >= 62) {
+            throw new IllegalArgumentException("Invalid timing wheel geometry.");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.slots = new Timer[levels][1 << bits];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Furthest point in time a timer can be scheduled for
+    long horizonMillis() {
+        return (currentTick + (1L << (bits * slots.length)) - 1) * tickMillis;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Timers already due fire on the next tick
+    Timer<T> schedule(long dueMillis, T payload) {
+        long dueTick = Math.max(Math.floorDiv(dueMillis, tickMillis), currentTick + 1);
+        if (dueTick - currentTick >= 1L << (bits * slots.length)) {
+            throw new IllegalArgumentException("Due time is beyond the wheel horizon.");
+        }
+        Timer<T> timer = new Timer<>(payload, dueTick);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    void cancel(Timer<T> timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+            size--;
+        }
+    }
+
+    // Fires every timer due up to nowMillis, catching up on ticks missed since the last call
+    void advanceTo(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < slots.length; level++) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (bits * level)) & mask));
+            }
+            int slot = (int) (currentTick & mask);
+            Timer<T> timer = slots[0][slot];
+            slots[0][slot] = null;
+            while (timer != null) {
+                Timer<T> next = timer.next;
+                detach(timer);
+                size--;
+                expired.accept(timer.payload);
+                timer = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timer<T> timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            detach(timer);
+            place(timer);
+            timer = next;
+        }
+    }
+
+    // The lowest level whose span covers the remaining delay; dueTick >= currentTick
+    private void place(Timer<T> timer) {
+        long delay = timer.dueTick - currentTick;
+        int level = 0;
+        while (level < slots.length - 1 && delay >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((timer.dueTick >>> (bits * level)) & mask);
+        Timer<T> head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        detach(timer);
+    }
+
+    private void detach(Timer<T> timer) {
+        timer.level = -1;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
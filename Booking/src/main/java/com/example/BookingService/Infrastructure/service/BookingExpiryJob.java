@@ -0,0 +1,173 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Infrastructure.audit.BookingAuditLog;
+import com.example.BookingService.Infrastructure.deadline.DeadlineConnectionFactory;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import com.example.BookingService.Infrastructure.sharding.ShardRoutingConnectionFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Moves PENDING bookings whose date has passed to EXPIRED, so they stop counting against
+// capacity and stop blocking the car. Works in small chunks, each its own short transaction,
+// and backs off while the connection pool is busy with foreground requests. Each shard is
+// expired in turn and throttled on its own pool.
+@Slf4j
+@Component
+public class BookingExpiryJob {
+
+    private final BookingRepository bookingRepository;
+    private final BookingRollupService bookingRollupService;
+    private final TransactionalOperator transactionalOperator;
+    private final ConnectionFactory connectionFactory;
+    private final BookingShards bookingShards;
+    private final BookingAuditLog bookingAuditLog;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pauseBetweenBatches;
+    private final double maxPoolUsage;
+
+    private final Counter expiredCounter;
+    private final Counter throttledCounter;
+    private final Timer batchTimer;
+    private final AtomicLong lagDays = new AtomicLong();
+
+    public BookingExpiryJob(
+            BookingRepository bookingRepository,
+            BookingRollupService bookingRollupService,
+            TransactionalOperator transactionalOperator,
+            ConnectionFactory connectionFactory,
+            BookingShards bookingShards,
+            BookingAuditLog bookingAuditLog,
+            MeterRegistry meterRegistry,
+            @Value("${booking.expiry.enabled:true}") boolean enabled,
+            @Value("${booking.expiry.batch-size:500}") int batchSize,
+            @Value("${booking.expiry.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${booking.expiry.pause-between-batches:200ms}") Duration pauseBetweenBatches,
+            @Value("${booking.expiry.max-pool-usage:0.5}") double maxPoolUsage) {
+        this.bookingRepository = bookingRepository;
+        this.bookingRollupService = bookingRollupService;
+        this.transactionalOperator = transactionalOperator;
+        this.connectionFactory = connectionFactory;
+        this.bookingShards = bookingShards;
+        this.bookingAuditLog = bookingAuditLog;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseBetweenBatches = pauseBetweenBatches;
+        this.maxPoolUsage = maxPoolUsage;
+        this.expiredCounter = meterRegistry.counter("booking.expiry.expired");
+        this.throttledCounter = meterRegistry.counter("booking.expiry.throttled");
+        this.batchTimer = meterRegistry.timer("booking.expiry.batch");
+        meterRegistry.gauge("booking.expiry.lag.days", lagDays);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.interval:5m}", initialDelayString = "${booking.expiry.initial-delay:1m}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now();
+        long maxLag = 0;
+        for (String shard : bookingShards.names()) {
+            int total = 0;
+            try {
+                for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                    if (poolIsBusy(shard)) {
+                        throttledCounter.increment();
+                        Thread.sleep(pauseBetweenBatches.multipliedBy(5).toMillis());
+                        continue;
+                    }
+                    Integer expired = batchTimer.record(() -> expireBatch(shard, cutoff).block());
+                    total += expired != null ? expired : 0;
+                    if (expired == null || expired < batchSize) {
+                        break;
+                    }
+                    Thread.sleep(pauseBetweenBatches.toMillis());
+                }
+                maxLag = Math.max(maxLag, lag(shard, cutoff));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Booking expiry run failed on shard {}: {}", shard, e.toString());
+            }
+            if (total > 0) {
+                log.info("Expired {} stale PENDING bookings dated before {} on shard {}", total, cutoff, shard);
+            }
+        }
+        lagDays.set(maxLag);
+    }
+
+    // One chunk: flip the status and move the rollup counters in the same transaction
+    Mono<Integer> expireBatch(String shard, LocalDate cutoff) {
+        return bookingRepository.expireStalePending(cutoff, batchSize)
+                .collectList()
+                .flatMap(expired -> moveRollupCounters(expired)
+                        .then(Flux.fromIterable(expired)
+                                .concatMap(booking -> bookingAuditLog.record(booking, BookingStatus.PENDING,
+                                        BookingStatus.EXPIRED, booking.getBooking_date(), null))
+                                .then())
+                        .thenReturn(expired.size()))
+                .as(transactionalOperator::transactional)
+                .contextWrite(BookingShards.forShard(shard))
+                .contextWrite(BookingAuditLog.withActor("system:expiry"))
+                .doOnNext(count -> expiredCounter.increment(count));
+    }
+
+    private Mono<Void> moveRollupCounters(List<BookingEntity> expired) {
+        Map<List<Object>, List<BookingEntity>> byDay = expired.stream()
+                .collect(Collectors.groupingBy(b -> List.of(b.getBranch_id(), b.getService_id(), b.getBooking_date())));
+        return Flux.fromIterable(byDay.values())
+                .concatMap(bookings -> bookingRollupService.recordTransitions(
+                        bookings.get(0), BookingStatus.PENDING, BookingStatus.EXPIRED, bookings.size()))
+                .then();
+    }
+
+    private boolean poolIsBusy(String shard) {
+        ConnectionFactory target = DeadlineConnectionFactory.unwrap(connectionFactory);
+        ConnectionFactory shardFactory = target instanceof ShardRoutingConnectionFactory router
+                ? router.pool(shard)
+                : target;
+        if (shardFactory instanceof ConnectionPool pool) {
+            return pool.getMetrics()
+                    .map(metrics -> usage(metrics) > maxPoolUsage)
+                    .orElse(false);
+        }
+        return false;
+    }
+
+    private double usage(PoolMetrics metrics) {
+        int max = metrics.getMaxAllocatedSize();
+        return max > 0 ? (double) (metrics.acquiredSize() + metrics.pendingAcquireSize()) / max : 0;
+    }
+
+    private long lag(String shard, LocalDate cutoff) {
+        LocalDate oldest = bookingRepository.findOldestStalePendingDate(cutoff)
+                .contextWrite(BookingShards.forShard(shard))
+                .block();
+        return oldest == null ? 0 : ChronoUnit.DAYS.between(oldest, cutoff);
+    }
+}
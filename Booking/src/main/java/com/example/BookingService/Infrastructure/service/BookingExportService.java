@@ -0,0 +1,175 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Streams bookings of a branch straight from a database cursor into response buffers.
+// Rows are written as CSV or NDJSON without building entities, models or DTOs, and at most
+// fetch-size rows are in flight, so heap use stays flat however many rows are exported.
+// Exports use their own small connection pool per shard and never take connections from bookings.
+@Service
+public class BookingExportService implements DisposableBean {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String CSV_HEADER =
+            "booking_id,service_id,car_id,branch_id,booking_date,slot_start,status,comments,created_at\n";
+
+    private static final String EXPORT_QUERY =
+            "SELECT booking_id, service_id, car_id, branch_id, booking_date, slot_start, status_id, comments, created_at " +
+            "FROM booking WHERE branch_id = :branchId AND booking_date BETWEEN :from AND :to " +
+            "ORDER BY booking_date, booking_id";
+
+    private final BookingShards bookingShards;
+    private final int maxConnections;
+    private final int fetchSize;
+    private final Map<String, ConnectionPool> exportPools = new ConcurrentHashMap<>();
+
+    public BookingExportService(
+            BookingShards bookingShards,
+            @Value("${booking.export.max-connections:2}") int maxConnections,
+            @Value("${booking.export.fetch-size:1000}") int fetchSize) {
+        this.bookingShards = bookingShards;
+        this.maxConnections = maxConnections;
+        this.fetchSize = fetchSize;
+    }
+
+    public Flux<DataBuffer> export(Long branchId, LocalDate from, LocalDate to, String format, DataBufferFactory buffers) {
+        boolean csv = CSV.equals(format);
+        DatabaseClient exportClient = DatabaseClient.create(exportPool(bookingShards.shardOfBranch(branchId)));
+        Flux<DataBuffer> rows = exportClient.sql(EXPORT_QUERY)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .bind("branchId", branchId)
+                .bind("from", from)
+                .bind("to", to)
+                .map((row, metadata) -> csv ? writeCsv(row, buffers) : writeNdjson(row, buffers))
+                .all()
+                .limitRate(fetchSize);
+        if (!csv) {
+            return rows;
+        }
+        return Flux.concat(
+                Flux.defer(() -> Flux.just(buffers.wrap(CSV_HEADER.getBytes(StandardCharsets.UTF_8)))),
+                rows);
+    }
+
+    private DataBuffer writeCsv(Row row, DataBufferFactory buffers) {
+        DataBuffer buffer = buffers.allocateBuffer(192);
+        write(buffer, row.get("booking_id")).write(",", StandardCharsets.UTF_8);
+        write(buffer, row.get("service_id")).write(",", StandardCharsets.UTF_8);
+        write(buffer, row.get("car_id")).write(",", StandardCharsets.UTF_8);
+        write(buffer, row.get("branch_id")).write(",", StandardCharsets.UTF_8);
+        write(buffer, row.get("booking_date")).write(",", StandardCharsets.UTF_8);
+        write(buffer, row.get("slot_start")).write(",", StandardCharsets.UTF_8);
+        buffer.write(status(row), StandardCharsets.UTF_8).write(",", StandardCharsets.UTF_8);
+        String comments = row.get("comments", String.class);
+        if (comments != null) {
+            buffer.write("\"", StandardCharsets.UTF_8)
+                    .write(comments.replace("\"", "\"\""), StandardCharsets.UTF_8)
+                    .write("\"", StandardCharsets.UTF_8);
+        }
+        buffer.write(",", StandardCharsets.UTF_8);
+        return write(buffer, row.get("created_at")).write("\n", StandardCharsets.UTF_8);
+    }
+
+    private DataBuffer writeNdjson(Row row, DataBufferFactory buffers) {
+        DataBuffer buffer = buffers.allocateBuffer(256);
+        buffer.write("{\"id\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("booking_id"));
+        buffer.write(",\"service_id\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("service_id"));
+        buffer.write(",\"car_id\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("car_id"));
+        buffer.write(",\"branch_id\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("branch_id"));
+        buffer.write(",\"booking_date\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("booking_date"));
+        buffer.write(",\"slot_start\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("slot_start"));
+        buffer.write(",\"status\":\"", StandardCharsets.UTF_8)
+                .write(status(row), StandardCharsets.UTF_8)
+                .write("\",\"comments\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("comments"));
+        buffer.write(",\"created_at\":", StandardCharsets.UTF_8);
+        writeJson(buffer, row.get("created_at"));
+        return buffer.write("}\n", StandardCharsets.UTF_8);
+    }
+
+    private static DataBuffer write(DataBuffer buffer, Object value) {
+        return value == null ? buffer : buffer.write(value.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static void writeJson(DataBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.write("null", StandardCharsets.UTF_8);
+        } else if (value instanceof Number) {
+            buffer.write(value.toString(), StandardCharsets.UTF_8);
+        } else {
+            buffer.write("\"", StandardCharsets.UTF_8)
+                    .write(escapeJson(value.toString()), StandardCharsets.UTF_8)
+                    .write("\"", StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String escapeJson(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '"' -> "\\\"";
+                case '\\' -> "\\\\";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                case '\t' -> "\\t";
+                default -> c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+            };
+            if (replacement != null && escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            if (escaped != null) {
+                if (replacement != null) {
+                    escaped.append(replacement);
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+
+    private static String status(Row row) {
+        Number statusId = row.get("status_id", Number.class);
+        return statusId == null ? "" : BookingStatus.fromCode(statusId.intValue()).name();
+    }
+
+    private ConnectionPool exportPool(String shard) {
+        return exportPools.computeIfAbsent(shard, name -> new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(bookingShards.options(name)))
+                .name("booking-export-" + name)
+                .initialSize(0)
+                .maxSize(maxConnections)
+                .build()));
+    }
+
+    @Override
+    public void destroy() {
+        exportPools.values().forEach(ConnectionPool::dispose);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.repository.BookingRollupRepository;
+import com.example.BookingService.Domain.dto.UtilizationReportDTO;
+import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class BookingRollupService {
+
+    private final BookingRollupRepository bookingRollupRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final BookingShards bookingShards;
+
+    // Moves one booking between status counters of its day; from is null for a new booking.
+    // Called inside the booking transaction so the rollup never drifts from the booking table.
+    public Mono<BookingEntity> recordTransition(BookingEntity booking, BookingStatus from, BookingStatus to) {
+        Mono<Integer> decrement = from == null
+                ? Mono.empty()
+                : bookingRollupRepository.addToCount(booking.getBranch_id(), booking.getService_id(),
+                        booking.getBooking_date(), (long) from.getCode(), -1);
+        Mono<Integer> increment = bookingRollupRepository.addToCount(booking.getBranch_id(), booking.getService_id(),
+                booking.getBooking_date(), (long) to.getCode(), 1);
+        return decrement.then(increment).thenReturn(booking);
+    }
+
+    // Same as recordTransition for several bookings of one branch/service/day at once
+    public Mono<Void> recordTransitions(BookingEntity sameDay, BookingStatus from, BookingStatus to, long count) {
+        return bookingRollupRepository.addToCount(sameDay.getBranch_id(), sameDay.getService_id(),
+                        sameDay.getBooking_date(), (long) from.getCode(), -count)
+                .then(bookingRollupRepository.addToCount(sameDay.getBranch_id(), sameDay.getService_id(),
+                        sameDay.getBooking_date(), (long) to.getCode(), count))
+                .then();
+    }
+
+    public Flux<UtilizationReportDTO> getUtilization(Long branchId, LocalDate from, LocalDate to) {
+        return bookingRollupRepository.findUtilization(branchId, from, to)
+                .map(row -> {
+                    long total = row.getTotal();
+                    if (row.getCapacity_per_day() != null && row.getCapacity_per_day() > 0) {
+                        row.setUtilization((double) row.getBooked() / row.getCapacity_per_day());
+                    }
+                    if (total > 0) {
+                        row.setCancellation_rate((double) row.getCancelled() / total);
+                        row.setReschedule_rate((double) row.getRescheduled() / total);
+                    }
+                    return row;
+                })
+                .contextWrite(BookingShards.forBranch(branchId));
+    }
+
+    // Recomputes the rollup for a date range from the booking table (backfill or repair),
+    // one transaction per shard
+    public Mono<Integer> rebuild(LocalDate from, LocalDate to) {
+        return bookingShards.onEachShard(() -> bookingRollupRepository.deleteRange(from, to)
+                        .then(bookingRollupRepository.insertRangeFromBookings(from, to))
+                        .as(transactionalOperator::transactional))
+                .reduce(0, Integer::sum)
+                .doOnNext(rows -> log.info("Rebuilt booking rollup {}..{}: {} rows", from, to, rows));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.mapper.BookingMapper;
+import com.example.BookingService.Data.repository.BookingSearchRepository;
+import com.example.BookingService.Domain.dto.BookingSearchPageDTO;
+import com.example.BookingService.Domain.model.BookingSearchCriteria;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+// Keyset-paged search for branch staff. Pages are ordered by (booking_date, booking_id) and the
+// cursor is the last row's key, so a page costs the same however deep it is, and rows that are
+// inserted meanwhile neither shift nor duplicate later pages.
+@RequiredArgsConstructor
+@Service
+public class BookingSearchService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private final BookingSearchRepository bookingSearchRepository;
+    private final BookingMapper bookingMapper;
+
+    public Mono<BookingSearchPageDTO> search(BookingSearchCriteria criteria, String after) {
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getTo().isBefore(criteria.getFrom())) {
+            return Mono.error(new ResponseStatusException(BAD_REQUEST, "'to' must not be before 'from'."));
+        }
+        if (criteria.getLimit() < 1 || criteria.getLimit() > MAX_LIMIT) {
+            return Mono.error(new ResponseStatusException(BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT + "."));
+        }
+        BookingSearchCriteria query;
+        try {
+            BookingSearchRepository.Shape.of(criteria);
+            query = withCursor(criteria, after);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(BAD_REQUEST, e.getMessage()));
+        }
+
+        // One extra row tells whether another page follows
+        return bookingSearchRepository.search(query.toBuilder().limit(criteria.getLimit() + 1).build())
+                .collectList()
+                .map(rows -> page(rows, criteria.getLimit()))
+                .contextWrite(BookingShards.forBranch(criteria.getBranchId()));
+    }
+
+    private BookingSearchPageDTO page(List<BookingEntity> rows, int limit) {
+        BookingSearchPageDTO page = new BookingSearchPageDTO();
+        List<BookingEntity> items = rows.size() > limit ? rows.subList(0, limit) : rows;
+        items.forEach(row -> page.getItems().add(bookingMapper.toDto(row)));
+        if (rows.size() > limit) {
+            BookingEntity last = items.get(items.size() - 1);
+            page.setNext_cursor(encodeCursor(last.getBooking_date(), last.getBooking_id()));
+        }
+        return page;
+    }
+
+    private BookingSearchCriteria withCursor(BookingSearchCriteria criteria, String after) {
+        if (after == null || after.isBlank()) {
+            return criteria;
+        }
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split("/", 2);
+            return criteria.toBuilder()
+                    .afterDate(LocalDate.parse(key[0]))
+                    .afterId(Long.valueOf(key[1]))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    private String encodeCursor(LocalDate date, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "/" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
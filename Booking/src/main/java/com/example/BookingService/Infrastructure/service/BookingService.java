@@ -4,20 +4,33 @@ import com.example.BookingService.Data.entity.BookingEntity;
 import com.example.BookingService.Data.mapper.BookingMapper;
 import com.example.BookingService.Domain.dto.BookingRequestDTO;
 import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.dto.CarBookingLookupDTO;
 import com.example.BookingService.Domain.model.BookingModel;
 import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Domain.model.SlotOccupancy;
+import com.example.BookingService.Domain.model.SlotSchedule;
 import com.example.BookingService.Domain.service.BookingServiceInterface;
 import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Infrastructure.audit.BookingAuditLog;
+import com.example.BookingService.Infrastructure.registry.CarRegistry;
+import com.example.BookingService.Infrastructure.reminder.BookingReminderScheduler;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator; // 🚨 IMPORTANT: Used for transactional control
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.springframework.http.HttpStatus.*;
 
@@ -29,6 +42,23 @@ public class BookingService implements BookingServiceInterface {
     private final BookingMapper bookingMapper;
     private final BranchServiceService branchServiceService; // 1. INJECT CAPACITY SERVICE
     private final TransactionalOperator transactionalOperator; // 🚨 IMPORTANT: For atomicity
+    private final SlotOccupancyIndex slotOccupancyIndex;
+    private final CarRegistry carRegistry;
+    private final BookingRollupService bookingRollupService;
+    private final OptimisticRetry optimisticRetry;
+    private final BookingShards bookingShards;
+    private final BranchCalendarService branchCalendarService;
+    private final BookingAuditLog bookingAuditLog;
+    private final BookingReminderScheduler bookingReminders;
+    private final BranchDaySheetService branchDaySheetService;
+
+    private static final int MAX_LOOKUP_CARS = 500;
+    // booking.comments is VARCHAR(500) and part of idx_booking_day_sheet
+    private static final int MAX_COMMENTS_LENGTH = 500;
+
+    private static final Comparator<BookingEntity> LATEST_FIRST = Comparator
+            .comparing(BookingEntity::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(BookingEntity::getBooking_id, Comparator.reverseOrder());
 
     private int countConsecutiveStatus(
             List<BookingModel> bookings,
@@ -51,8 +81,9 @@ public class BookingService implements BookingServiceInterface {
     @Override
     public Mono<BookingResponseDTO> getLastBookingByCarId(Long carId) {
 
-        return bookingRepository
-                .findTopByCarIdOrderByCreatedAtDesc(carId)
+        return bookingShards
+                .onEachShard(() -> bookingRepository.findTopByCarIdOrderByCreatedAtDesc(carId))
+                .reduce((a, b) -> LATEST_FIRST.compare(a, b) <= 0 ? a : b)
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(
                                 NOT_FOUND,
@@ -66,24 +97,106 @@ public class BookingService implements BookingServiceInterface {
     private Mono<List<LocalDate>> findClosestAvailableDates(
             Long branchId,
             Long serviceId,
-            int maxCapacity
+            int maxCapacity,
+            SlotSchedule schedule
     ) {
         LocalDate startDate = LocalDate.now().plusDays(1);
 
-        return Flux
-                .generate(() -> startDate, (date, sink) -> {
-                    sink.next(date);
-                    return date.plusDays(1);
-                })
-                .cast(LocalDate.class)
-                .flatMap(date ->
-                        bookingRepository
-                                .countActiveBookings(branchId, serviceId, date)
-                                .filter(count -> count < maxCapacity)
-                                .map(count -> date)
-                )
-                .take(3)
-                .collectList();
+        return branchCalendarService.calendar(branchId).flatMap(calendar -> {
+            if (calendar.isAlwaysClosed()) {
+                return Mono.error(new IllegalStateException(
+                        String.format("Branch ID %d is closed on every day of the week.", branchId)
+                ));
+            }
+            // Only open days are generated; closed days never cost a query
+            return Flux
+                    .generate(() -> startDate, (LocalDate date, SynchronousSink<LocalDate> sink) -> {
+                        LocalDate open = calendar.nextOpen(date);
+                        sink.next(open);
+                        return open.plusDays(1);
+                    })
+                    .flatMap(date ->
+                            bookingRepository
+                                    .countActiveBookings(branchId, serviceId, date)
+                                    .filter(count -> count < maxCapacity)
+                                    .filterWhen(count -> hasFreeSlot(branchId, serviceId, date, schedule))
+                                    .map(count -> date)
+                    )
+                    .take(3)
+                    .collectList();
+        });
+    }
+
+    private Mono<Boolean> hasFreeSlot(Long branchId, Long serviceId, LocalDate date, SlotSchedule schedule) {
+        if (schedule == null) {
+            return Mono.just(true);
+        }
+        return slotOccupancyIndex.occupancy(branchId, serviceId, date, schedule)
+                .map(SlotOccupancy::hasFreeSlot);
+    }
+
+    // Reserves the requested slot (or the first free one) on the booking's date.
+    // Branches without a slot layout keep booking by day only.
+    private Mono<BookingEntity> assignSlot(BookingEntity entity, SlotSchedule schedule, LocalTime requestedSlot) {
+        if (schedule == null) {
+            entity.setSlot_start(null);
+            return Mono.just(entity);
+        }
+
+        int requested = -1;
+        if (requestedSlot != null) {
+            requested = schedule.indexOf(requestedSlot);
+            if (requested < 0) {
+                return Mono.error(new IllegalStateException(
+                        String.format("Requested slot %s is not a valid slot start for this branch.", requestedSlot)
+                ));
+            }
+        }
+
+        int requestedIndex = requested;
+        return slotOccupancyIndex
+                .occupancy(entity.getBranch_id(), entity.getService_id(), entity.getBooking_date(), schedule)
+                .flatMap(occupancy -> {
+                    SlotOccupancy.Reservation reservation = occupancy.reserve(requestedIndex);
+                    if (reservation == null) {
+                        return Mono.error(new IllegalStateException(
+                                String.format("Requested slot %s on %s is not available. Please choose one of the free slots: %s",
+                                        requestedSlot, entity.getBooking_date(), occupancy.freeSlots(5))
+                        ));
+                    }
+                    entity.setSlot_start(schedule.startOf(reservation.slot()));
+                    entity.setSlot_seat(reservation.seat());
+                    return Mono.just(entity);
+                });
+    }
+
+    // A reservation made in memory during a transaction that did not commit is given back. When
+    // the database rejected the seat another instance took it first: that day is reloaded instead.
+    private void releaseReservation(AtomicReference<BookingEntity> reserved, Throwable error) {
+        BookingEntity entity = reserved.getAndSet(null);
+        if (entity == null) {
+            return;
+        }
+        if (error instanceof DuplicateKeyException) {
+            slotOccupancyIndex.evict(entity);
+        } else {
+            slotOccupancyIndex.release(entity);
+        }
+    }
+
+    private static boolean tooLong(String comments) {
+        return comments != null && comments.length() > MAX_COMMENTS_LENGTH;
+    }
+
+    private static ResponseStatusException commentsTooLong() {
+        return new ResponseStatusException(
+                BAD_REQUEST, "comments must be at most " + MAX_COMMENTS_LENGTH + " characters.");
+    }
+
+    private static Throwable slotTaken(Throwable error) {
+        return error instanceof DuplicateKeyException
+                ? new ResponseStatusException(CONFLICT, "The slot was just taken. Please try again.")
+                : error;
     }
 
 
@@ -95,7 +208,19 @@ public class BookingService implements BookingServiceInterface {
         Long serviceId = request.getService_id();
         LocalDate requestedDate = request.getBooking_date();
 
-        return bookingRepository.existsPendingBookingByCarId(carId)
+        if (tooLong(request.getComments())) {
+            return Mono.error(commentsTooLong());
+        }
+
+        if (!carRegistry.accepts(carId)) {
+            return Mono.error(new ResponseStatusException(
+                    BAD_REQUEST,
+                    String.format("Car ID %d is not a registered customer car.", carId)
+            ));
+        }
+
+        AtomicReference<BookingEntity> reserved = new AtomicReference<>();
+        Mono<BookingEntity> booking = bookingRepository.existsPendingBookingByCarId(carId)
                 .flatMap(exists -> {
                     if (exists) {
                         return Mono.error(new IllegalStateException(
@@ -103,44 +228,89 @@ public class BookingService implements BookingServiceInterface {
                         ));
                     }
 
-                    return branchServiceService.getMaxCapacity(branchId, serviceId)
-                            .flatMap(maxCapacity -> findClosestAvailableDates(branchId, serviceId, maxCapacity))
-                            .flatMap(availableDates -> {
-
-                                if (availableDates.isEmpty()) {
-                                    availableDates.add(LocalDate.now().plusDays(1));
-                                }
+                    return branchServiceService.getCapacityRule(branchId, serviceId)
+                            .flatMap(rule -> {
+                                SlotSchedule schedule = SlotSchedule.of(rule);
+                                return findClosestAvailableDates(branchId, serviceId, rule.getCapacity_per_day(), schedule)
+                                        .flatMap(availableDates -> {
 
-                                LocalDate chosenDate;
-                                if (requestedDate != null && availableDates.contains(requestedDate)) {
-                                    chosenDate = requestedDate;
-                                } else if (requestedDate != null) {
-                                    return Mono.error(new IllegalStateException(
-                                            String.format("Requested date %s is not available. Please choose one of the nearest available dates: %s",
-                                                    requestedDate, availableDates)
-                                    ));
-                                } else {
-                                    chosenDate = availableDates.get(0);
-                                }
+                                            if (availableDates.isEmpty()) {
+                                                availableDates.add(LocalDate.now().plusDays(1));
+                                            }
 
-                                BookingEntity entity = bookingMapper.toEntity(request);
-                                entity.setBooking_date(chosenDate);
-                                entity.setStatus_id((long) BookingStatus.PENDING.getCode());
-                                entity.setCreatedAt(LocalDateTime.now());
-                                entity.setUpdatedAt(LocalDateTime.now());
+                                            LocalDate chosenDate;
+                                            if (requestedDate != null && availableDates.contains(requestedDate)) {
+                                                chosenDate = requestedDate;
+                                            } else if (requestedDate != null) {
+                                                return Mono.error(new IllegalStateException(
+                                                        String.format("Requested date %s is not available. Please choose one of the nearest available dates: %s",
+                                                                requestedDate, availableDates)
+                                                ));
+                                            } else {
+                                                chosenDate = availableDates.get(0);
+                                            }
 
-                                return bookingRepository.save(entity);
+                                            BookingEntity entity = bookingMapper.toEntity(request);
+                                            entity.setBooking_date(chosenDate);
+                                            entity.setStatus_id((long) BookingStatus.PENDING.getCode());
+                                            entity.setCreatedAt(LocalDateTime.now());
+                                            entity.setUpdatedAt(LocalDateTime.now());
+
+                                            return assignSlot(entity, schedule, request.getSlot_start())
+                                                    .doOnNext(reserved::set)
+                                                    .flatMap(bookingRepository::save)
+                                                    .flatMap(saved -> bookingRollupService.recordTransition(
+                                                            saved, null, BookingStatus.PENDING))
+                                                    .flatMap(saved -> bookingAuditLog.record(
+                                                            saved, null, BookingStatus.PENDING, null, saved.getBooking_date())
+                                                            .thenReturn(saved));
+                                        });
                             });
                 })
                 .as(transactionalOperator::transactional)
+                .doOnError(e -> releaseReservation(reserved, e))
+                .onErrorMap(BookingService::slotTaken);
+
+        // The booking lives on the shard of its branch
+        return rejectPendingOnOtherShards(carId, branchId)
+                .then(booking)
+                .contextWrite(BookingShards.forBranch(branchId))
+                .doOnNext(bookingReminders::onCreated)
+                .doOnNext(branchDaySheetService::onChanged)
+                .doOnNext(saved -> slotOccupancyIndex.publishChange(
+                        saved.getBranch_id(), saved.getService_id(), saved.getBooking_date()))
                 .map(bookingMapper::toDomain)
                 .map(bookingMapper::toDto);
     }
 
+    // One PENDING booking per car across all shards. The shard that takes the booking checks
+    // again inside its transaction; the other shards are checked here, before it starts.
+    private Mono<Void> rejectPendingOnOtherShards(Long carId, Long branchId) {
+        if (!bookingShards.isSharded()) {
+            return Mono.empty();
+        }
+        String bookingShard = bookingShards.shardOfBranch(branchId);
+        return Flux.fromIterable(bookingShards.names())
+                .filter(shard -> !shard.equals(bookingShard))
+                .flatMap(shard -> bookingRepository.existsPendingBookingByCarId(carId)
+                        .contextWrite(BookingShards.forShard(shard)))
+                .any(Boolean::booleanValue)
+                .flatMap(exists -> exists
+                        ? Mono.error(new IllegalStateException(
+                                String.format("Car ID %d already has a pending booking and cannot book again.", carId)))
+                        : Mono.empty());
+    }
+
     @Override
-    public Mono<BookingResponseDTO> rescheduleBooking(Long oldBookingId, LocalDate requestedDate, String newComments) {
+    public Mono<BookingResponseDTO> rescheduleBooking(Long oldBookingId, LocalDate requestedDate, LocalTime requestedSlot, String newComments) {
 
-        return bookingRepository.findById(oldBookingId)
+        if (tooLong(newComments)) {
+            return Mono.error(commentsTooLong());
+        }
+
+        AtomicReference<BookingEntity> reserved = new AtomicReference<>();
+        AtomicReference<BookingEntity> replaced = new AtomicReference<>();
+        Mono<BookingEntity> rescheduled = bookingRepository.findById(oldBookingId)
                 .flatMap(oldBookingEntity -> {
 
                     if (oldBookingEntity.getStatus_id() != (long) BookingStatus.PENDING.getCode()) {
@@ -162,67 +332,125 @@ public class BookingService implements BookingServiceInterface {
                                 Long branchId = oldBookingEntity.getBranch_id();
                                 Long serviceId = oldBookingEntity.getService_id();
 
-                                return branchServiceService.getMaxCapacity(branchId, serviceId)
-                                        .flatMap(maxCapacity -> findClosestAvailableDates(branchId, serviceId, maxCapacity))
-                                        .flatMap(availableDates -> {
-                                            if (availableDates.isEmpty()) {
-                                                // fallback
-                                                availableDates.add(LocalDate.now().plusDays(1));
-                                            }
-
-                                            // Step 1: Check if requested date is one of the available ones
-                                            LocalDate chosenDate;
-                                            if (requestedDate != null && availableDates.contains(requestedDate)) {
-                                                chosenDate = requestedDate;
-                                            } else {
-                                                // Throw exception if requested date is invalid
-                                                return Mono.error(new IllegalStateException(
-                                                        String.format("Requested date %s is not available. Please choose one of the nearest available dates: %s",
-                                                                requestedDate, availableDates)
-                                                ));
-                                            }
-
-
-                                            // Step 2: Update old booking
-                                            oldBookingEntity.setStatus_id((long) BookingStatus.RESCHEDULED.getCode());
-                                            oldBookingEntity.setUpdatedAt(LocalDateTime.now());
-
-                                            // Step 3: Create new booking
-                                            BookingEntity newBookingEntity = new BookingEntity(
-                                                    oldBookingEntity.getService_id(),
-                                                    oldBookingEntity.getCarId(),
-                                                    oldBookingEntity.getBranch_id(),
-                                                    chosenDate,
-                                                    newComments
-                                            );
-                                            newBookingEntity.setStatus_id((long) BookingStatus.PENDING.getCode());
-                                            newBookingEntity.setBooking_id(null);
-                                            newBookingEntity.setCreatedAt(LocalDateTime.now());
-                                            newBookingEntity.setUpdatedAt(LocalDateTime.now());
-
-                                            // Step 4: Save both
-                                            return bookingRepository.save(oldBookingEntity)
-                                                    .then(bookingRepository.save(newBookingEntity));
+                                return branchServiceService.getCapacityRule(branchId, serviceId)
+                                        .flatMap(rule -> {
+                                            SlotSchedule schedule = SlotSchedule.of(rule);
+                                            return findClosestAvailableDates(branchId, serviceId, rule.getCapacity_per_day(), schedule)
+                                                    .flatMap(availableDates -> {
+                                                        if (availableDates.isEmpty()) {
+                                                            // fallback
+                                                            availableDates.add(LocalDate.now().plusDays(1));
+                                                        }
+
+                                                        // Step 1: Check if requested date is one of the available ones
+                                                        LocalDate chosenDate;
+                                                        if (requestedDate != null && availableDates.contains(requestedDate)) {
+                                                            chosenDate = requestedDate;
+                                                        } else {
+                                                            // Throw exception if requested date is invalid
+                                                            return Mono.error(new IllegalStateException(
+                                                                    String.format("Requested date %s is not available. Please choose one of the nearest available dates: %s",
+                                                                            requestedDate, availableDates)
+                                                            ));
+                                                        }
+
+
+                                                        // Step 2: Update old booking
+                                                        oldBookingEntity.setStatus_id((long) BookingStatus.RESCHEDULED.getCode());
+                                                        oldBookingEntity.setUpdatedAt(LocalDateTime.now());
+
+                                                        // Step 3: Create new booking
+                                                        BookingEntity newBookingEntity = new BookingEntity(
+                                                                oldBookingEntity.getService_id(),
+                                                                oldBookingEntity.getCarId(),
+                                                                oldBookingEntity.getBranch_id(),
+                                                                chosenDate,
+                                                                newComments
+                                                        );
+                                                        newBookingEntity.setStatus_id((long) BookingStatus.PENDING.getCode());
+                                                        newBookingEntity.setBooking_id(null);
+                                                        newBookingEntity.setCreatedAt(LocalDateTime.now());
+                                                        newBookingEntity.setUpdatedAt(LocalDateTime.now());
+
+                                                        // Step 4: Save both
+                                                        return assignSlot(newBookingEntity, schedule, requestedSlot)
+                                                                .doOnNext(reserved::set)
+                                                                .flatMap(assigned -> bookingRepository.save(oldBookingEntity)
+                                                                        .flatMap(old -> bookingRollupService.recordTransition(
+                                                                                old, BookingStatus.PENDING, BookingStatus.RESCHEDULED))
+                                                                        .flatMap(old -> bookingAuditLog.record(
+                                                                                old, BookingStatus.PENDING, BookingStatus.RESCHEDULED,
+                                                                                old.getBooking_date(), assigned.getBooking_date()))
+                                                                        .then(bookingRepository.save(assigned)))
+                                                                .flatMap(saved -> bookingRollupService.recordTransition(
+                                                                        saved, null, BookingStatus.PENDING))
+                                                                .flatMap(saved -> bookingAuditLog.record(
+                                                                        saved, null, BookingStatus.PENDING,
+                                                                        oldBookingEntity.getBooking_date(), saved.getBooking_date())
+                                                                        .thenReturn(saved))
+                                                                .doOnNext(saved -> replaced.set(oldBookingEntity));
+                                                    });
                                         });
                             });
                 })
                 .as(transactionalOperator::transactional)
+                // every failed attempt gives its reservation back before the next one reserves again
+                .doOnError(e -> releaseReservation(reserved, e))
+                .as(transaction -> optimisticRetry.retry("reschedule", transaction))
+                .onErrorMap(BookingService::slotTaken);
+
+        return bookingShards.locate(() -> bookingRepository.findBranchIdById(oldBookingId))
+                .flatMap(shard -> rescheduled.contextWrite(BookingShards.forShard(shard)))
+                // the old booking's seat is free only once the new one is committed
+                .doOnNext(saved -> slotOccupancyIndex.release(replaced.get()))
+                .doOnNext(saved -> bookingReminders.onRescheduled(oldBookingId, saved))
+                .doOnNext(saved -> branchDaySheetService.onRescheduled(oldBookingId, saved))
+                // the old booking's day is not known here
+                .doOnNext(saved -> slotOccupancyIndex.publishChange(saved.getBranch_id(), saved.getService_id(), null))
                 .map(bookingMapper::toDomain)
                 .map(bookingMapper::toDto);
     }
 
 
+    @Override
+    public Flux<CarBookingLookupDTO> lookupBookingsByCarIds(List<Long> carIds) {
+        if (carIds == null || carIds.isEmpty()) {
+            return Flux.error(new ResponseStatusException(BAD_REQUEST, "car_ids must not be empty."));
+        }
+        Long[] ids = carIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (ids.length > MAX_LOOKUP_CARS) {
+            return Flux.error(new ResponseStatusException(
+                    BAD_REQUEST, "At most " + MAX_LOOKUP_CARS + " car ids can be looked up at once."));
+        }
+
+        // One query for all cars; rows arrive grouped by car, latest booking first
+        Comparator<BookingEntity> order = Comparator.comparing(BookingEntity::getCarId).thenComparing(LATEST_FIRST);
+        return bookingShards.onEachShard(() -> bookingRepository.findLastAndPendingByCarIds(ids), order)
+                .windowUntilChanged(BookingEntity::getCarId)
+                .concatMap(rows -> rows.reduceWith(CarBookingLookupDTO::new, (lookup, entity) -> {
+                    BookingModel model = bookingMapper.toDomain(entity);
+                    BookingResponseDTO dto = bookingMapper.toDto(model);
+                    lookup.setCar_id(entity.getCarId());
+                    if (lookup.getLast() == null) {
+                        lookup.setLast(dto);
+                    }
+                    if (model.getStatus() == BookingStatus.PENDING) {
+                        lookup.setPending(dto);
+                    }
+                    return lookup;
+                }));
+    }
+
     @Override
     public Flux<BookingResponseDTO> getBookingsByCarId(Long carId) {
-        return bookingRepository.findByCarId(carId)
-                .map(bookingMapper::toDomain)
+        return bookingShards.onEachShard(() -> bookingRepository.findByCarId(carId))
                 .map(bookingMapper::toDto);
     }
 
     @Override
     public Mono<BookingResponseDTO> cancelBooking(Long bookingId) {
 
-        return bookingRepository.findById(bookingId)
+        Mono<BookingEntity> cancelled = bookingRepository.findById(bookingId)
                 .switchIfEmpty(Mono.error(
                         new ResponseStatusException(
                                 NOT_FOUND,
@@ -263,9 +491,23 @@ public class BookingService implements BookingServiceInterface {
                     );
                     bookingEntity.setUpdatedAt(LocalDateTime.now());
 
-                    return bookingRepository.save(bookingEntity);
+                    return bookingRepository.save(bookingEntity)
+                            .flatMap(saved -> bookingRollupService.recordTransition(
+                                    saved, BookingStatus.PENDING, BookingStatus.CANCELLED))
+                            .flatMap(saved -> bookingAuditLog.record(
+                                    saved, BookingStatus.PENDING, BookingStatus.CANCELLED, saved.getBooking_date(), null)
+                                    .thenReturn(saved));
                 })
                 .as(transactionalOperator::transactional)
+                .as(transaction -> optimisticRetry.retry("cancel", transaction));
+
+        return bookingShards.locate(() -> bookingRepository.findBranchIdById(bookingId))
+                .flatMap(shard -> cancelled.contextWrite(BookingShards.forShard(shard)))
+                .doOnNext(slotOccupancyIndex::release)
+                .doOnNext(saved -> bookingReminders.onCancelled(saved.getBooking_id()))
+                .doOnNext(branchDaySheetService::onChanged)
+                .doOnNext(saved -> slotOccupancyIndex.publishChange(
+                        saved.getBranch_id(), saved.getService_id(), saved.getBooking_date()))
                 .map(bookingMapper::toDomain)
                 .map(bookingMapper::toDto);
     }
@@ -0,0 +1,128 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Data.entity.BranchHolidayEntity;
+import com.example.BookingService.Data.repository.BranchCalendarRepository;
+import com.example.BookingService.Domain.dto.BranchCalendarDTO;
+import com.example.BookingService.Domain.dto.BranchHolidayDTO;
+import com.example.BookingService.Domain.model.ClosureCalendar;
+import com.example.BookingService.Infrastructure.cache.CacheInvalidationBus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Branch opening calendar. Each branch's weekly pattern and holidays are compiled into a
+// ClosureCalendar over the next horizon-days and cached; edits drop the cached calendar on every
+// instance so the next availability search already sees them. The TTL rolls the horizon forward.
+@Service
+public class BranchCalendarService {
+
+    public static final String CACHE_NAMESPACE = "calendar";
+
+    private final BranchCalendarRepository branchCalendarRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final CacheInvalidationBus invalidationBus;
+    private final int horizonDays;
+    private final Duration ttl;
+    private final Map<Long, Mono<ClosureCalendar>> calendars = new ConcurrentHashMap<>();
+
+    public BranchCalendarService(
+            BranchCalendarRepository branchCalendarRepository,
+            TransactionalOperator transactionalOperator,
+            CacheInvalidationBus invalidationBus,
+            @Value("${booking.calendar.horizon-days:400}") int horizonDays,
+            @Value("${booking.calendar.cache-ttl:1h}") Duration ttl) {
+        this.branchCalendarRepository = branchCalendarRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.horizonDays = horizonDays;
+        this.ttl = ttl;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.register(CACHE_NAMESPACE, key -> calendars.remove(Long.valueOf(key)), calendars::clear);
+    }
+
+    public Mono<ClosureCalendar> calendar(Long branchId) {
+        return calendars.computeIfAbsent(branchId,
+                id -> compile(id).cache(c -> ttl, e -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    public void invalidate(Long branchId) {
+        calendars.remove(branchId);
+        invalidationBus.publish(CACHE_NAMESPACE, branchId.toString());
+    }
+
+    public Mono<BranchCalendarDTO> getCalendar(Long branchId) {
+        LocalDate today = LocalDate.now();
+        return Mono.zip(
+                        weeklyClosedDays(branchId),
+                        branchCalendarRepository.findHolidays(branchId, today, today.plusDays(horizonDays))
+                                .map(this::toDto)
+                                .collectList())
+                .map(parts -> {
+                    BranchCalendarDTO dto = new BranchCalendarDTO();
+                    dto.setBranch_id(branchId);
+                    dto.setWeekly_closed_days(parts.getT1());
+                    dto.setHolidays(parts.getT2());
+                    return dto;
+                })
+                .contextWrite(BookingShards.forBranch(branchId));
+    }
+
+    public Mono<BranchCalendarDTO> setWeeklyClosedDays(Long branchId, Collection<DayOfWeek> closedDays) {
+        Integer[] days = closedDays.stream().distinct().map(DayOfWeek::getValue).toArray(Integer[]::new);
+        return branchCalendarRepository.deleteWeeklyClosedDays(branchId)
+                .then(days.length == 0
+                        ? Mono.just(0)
+                        : branchCalendarRepository.insertWeeklyClosedDays(branchId, days))
+                .as(transactionalOperator::transactional)
+                .contextWrite(BookingShards.forBranch(branchId))
+                .doOnSuccess(rows -> invalidate(branchId))
+                .then(getCalendar(branchId));
+    }
+
+    public Mono<BranchCalendarDTO> addHoliday(Long branchId, BranchHolidayDTO holiday) {
+        return branchCalendarRepository.upsertHoliday(branchId, holiday.getDate(), holiday.getDescription())
+                .contextWrite(BookingShards.forBranch(branchId))
+                .doOnSuccess(rows -> invalidate(branchId))
+                .then(getCalendar(branchId));
+    }
+
+    public Mono<BranchCalendarDTO> removeHoliday(Long branchId, LocalDate date) {
+        return branchCalendarRepository.deleteHoliday(branchId, date)
+                .contextWrite(BookingShards.forBranch(branchId))
+                .doOnSuccess(rows -> invalidate(branchId))
+                .then(getCalendar(branchId));
+    }
+
+    private Mono<ClosureCalendar> compile(Long branchId) {
+        LocalDate today = LocalDate.now();
+        return Mono.zip(
+                        weeklyClosedDays(branchId),
+                        branchCalendarRepository.findHolidays(branchId, today, today.plusDays(horizonDays))
+                                .map(BranchHolidayEntity::getHoliday_date)
+                                .collectList())
+                .map(parts -> ClosureCalendar.compile(today, horizonDays, parts.getT1(), parts.getT2()))
+                .contextWrite(BookingShards.forBranch(branchId));
+    }
+
+    private Mono<List<DayOfWeek>> weeklyClosedDays(Long branchId) {
+        return branchCalendarRepository.findWeeklyClosedDays(branchId)
+                .map(DayOfWeek::of)
+                .collectList();
+    }
+
+    private BranchHolidayDTO toDto(BranchHolidayEntity entity) {
+        BranchHolidayDTO dto = new BranchHolidayDTO();
+        dto.setDate(entity.getHoliday_date());
+        dto.setDescription(entity.getDescription());
+        return dto;
+    }
+}
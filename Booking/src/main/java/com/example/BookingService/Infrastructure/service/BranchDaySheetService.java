@@ -0,0 +1,218 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.mapper.BookingMapper;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.dto.BranchDaySheetDTO;
+import com.example.BookingService.Domain.model.BookingStatus;
+import com.example.BookingService.Infrastructure.cache.CacheInvalidationBus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Workshop day sheets: all bookings of a branch on a day. A sheet is filled once from an
+// index-only scan and then kept current in place by BookingService after each commit, so the
+// screens' frequent refreshes do not query the database. Every change bumps the sheet version;
+// a client sending its last version gets only the bookings changed since. Other instances drop
+// their copy of a changed sheet through the CacheInvalidationBus and refill it on the next read,
+// which hands their clients a new epoch and so a full sheet. Sheets are also refilled after the
+// TTL, which bounds staleness while the bus is disconnected.
+@Service
+public class BranchDaySheetService {
+
+    public static final String CACHE_NAMESPACE = "day-sheet";
+
+    private static final Comparator<BookingResponseDTO> SHEET_ORDER = Comparator
+            .comparing(BookingResponseDTO::getSlot_start, Comparator.nullsLast(Comparator.<LocalTime>naturalOrder()))
+            .thenComparing(BookingResponseDTO::getId);
+
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final CacheInvalidationBus invalidationBus;
+    private final Duration ttl;
+    private final Map<SheetKey, DaySheet> sheets = new ConcurrentHashMap<>();
+    // Tells sheets apart across refills and restarts, so an old version token forces a full sheet
+    private final AtomicLong epochs = new AtomicLong(System.currentTimeMillis());
+
+    public BranchDaySheetService(
+            BookingRepository bookingRepository,
+            BookingMapper bookingMapper,
+            CacheInvalidationBus invalidationBus,
+            @Value("${booking.day-sheet.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.invalidationBus = invalidationBus;
+        this.ttl = ttl;
+        invalidationBus.register(CACHE_NAMESPACE, this::evict, sheets::clear);
+    }
+
+    public Mono<BranchDaySheetDTO> getDaySheet(Long branchId, LocalDate date, String since) {
+        return sheet(branchId, date).map(sheet -> sheet.toDto(since));
+    }
+
+    public void onChanged(BookingEntity booking) {
+        DaySheet sheet = sheets.get(new SheetKey(booking.getBranch_id(), booking.getBooking_date()));
+        if (sheet != null) {
+            sheet.put(toDto(booking));
+        }
+        invalidationBus.publish(CACHE_NAMESPACE, booking.getBranch_id() + ":" + booking.getBooking_date());
+    }
+
+    // The old booking keeps its branch but its day is not known here, so each sheet of the branch is checked
+    public void onRescheduled(Long oldBookingId, BookingEntity newBooking) {
+        sheets.forEach((key, sheet) -> {
+            if (key.branchId().equals(newBooking.getBranch_id())) {
+                sheet.markStatus(oldBookingId, BookingStatus.RESCHEDULED);
+            }
+        });
+        invalidationBus.publish(CACHE_NAMESPACE, newBooking.getBranch_id().toString());
+        onChanged(newBooking);
+    }
+
+    // "branch:date" drops one sheet, "branch" every sheet of the branch
+    private void evict(String key) {
+        int colon = key.indexOf(':');
+        Long branchId = Long.valueOf(colon < 0 ? key : key.substring(0, colon));
+        LocalDate date = colon < 0 ? null : LocalDate.parse(key.substring(colon + 1));
+        sheets.keySet().removeIf(sheetKey -> sheetKey.branchId().equals(branchId)
+                && (date == null || sheetKey.date().equals(date)));
+    }
+
+    @Scheduled(fixedDelayString = "${booking.day-sheet.ttl:10m}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        sheets.values().removeIf(sheet -> sheet.isExpired(now));
+    }
+
+    private Mono<DaySheet> sheet(Long branchId, LocalDate date) {
+        SheetKey key = new SheetKey(branchId, date);
+        long now = System.nanoTime();
+        DaySheet sheet = sheets.compute(key, (k, current) -> current == null || current.isExpired(now)
+                ? new DaySheet(k, epochs.incrementAndGet(), now + ttl.toNanos())
+                : current);
+        return sheet.ready
+                .doOnError(e -> sheets.remove(key, sheet))
+                .thenReturn(sheet);
+    }
+
+    private BookingResponseDTO toDto(BookingEntity entity) {
+        return bookingMapper.toDto(bookingMapper.toDomain(entity));
+    }
+
+    private record SheetKey(Long branchId, LocalDate date) {
+    }
+
+    private final class DaySheet {
+
+        private final SheetKey key;
+        private final long epoch;
+        private final long expiresAtNanos;
+        private final Mono<Void> ready;
+        // booking id -> booking and the version that last changed it
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private long version;
+
+        private DaySheet(SheetKey key, long epoch, long expiresAtNanos) {
+            this.key = key;
+            this.epoch = epoch;
+            this.expiresAtNanos = expiresAtNanos;
+            this.ready = bookingRepository.findDaySheet(key.branchId(), key.date())
+                    .contextWrite(BookingShards.forBranch(key.branchId()))
+                    .map(BranchDaySheetService.this::toDto)
+                    .collectList()
+                    .doOnNext(this::fill)
+                    .then()
+                    .cache();
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        // Changes applied while the fill query ran are newer than its rows
+        private synchronized void fill(List<BookingResponseDTO> bookings) {
+            for (BookingResponseDTO booking : bookings) {
+                entries.putIfAbsent(booking.getId(), new Entry(booking, 0));
+            }
+        }
+
+        synchronized void put(BookingResponseDTO booking) {
+            version++;
+            entries.put(booking.getId(), new Entry(booking, version));
+        }
+
+        synchronized void markStatus(Long bookingId, BookingStatus status) {
+            Entry entry = entries.get(bookingId);
+            if (entry != null) {
+                BookingResponseDTO booking = copy(entry.booking());
+                booking.setStatus(status);
+                put(booking);
+            }
+        }
+
+        synchronized BranchDaySheetDTO toDto(String since) {
+            long sinceVersion = parseVersion(since);
+            BranchDaySheetDTO dto = new BranchDaySheetDTO();
+            dto.setBranch_id(key.branchId());
+            dto.setDate(key.date());
+            List<BookingResponseDTO> bookings = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (entry.version() > sinceVersion) {
+                    bookings.add(entry.booking());
+                }
+            }
+            bookings.sort(SHEET_ORDER);
+            dto.setBookings(bookings);
+            dto.setDelta(sinceVersion >= 0);
+            dto.setVersion(epoch + "." + version);
+            return dto;
+        }
+
+        // -1 (full sheet) unless the token names this sheet and a version it has reached
+        private long parseVersion(String since) {
+            if (since == null) {
+                return -1;
+            }
+            int dot = since.indexOf('.');
+            try {
+                if (dot > 0 && Long.parseLong(since.substring(0, dot)) == epoch) {
+                    long sinceVersion = Long.parseLong(since.substring(dot + 1));
+                    return sinceVersion >= 0 && sinceVersion <= version ? sinceVersion : -1;
+                }
+            } catch (NumberFormatException e) {
+                // unknown token: send the full sheet
+            }
+            return -1;
+        }
+    }
+
+    private record Entry(BookingResponseDTO booking, long version) {
+    }
+
+    private static BookingResponseDTO copy(BookingResponseDTO source) {
+        BookingResponseDTO copy = new BookingResponseDTO();
+        copy.setId(source.getId());
+        copy.setService_id(source.getService_id());
+        copy.setCar_id(source.getCar_id());
+        copy.setBranch_id(source.getBranch_id());
+        copy.setBooking_date(source.getBooking_date());
+        copy.setSlot_start(source.getSlot_start());
+        copy.setStatus(source.getStatus());
+        copy.setComments(source.getComments());
+        return copy;
+    }
+}
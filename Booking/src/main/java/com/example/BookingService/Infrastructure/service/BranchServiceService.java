@@ -1,6 +1,8 @@
 package com.example.BookingService.Infrastructure.service;
 
+import com.example.BookingService.Data.mapper.BranchServiceMapper;
 import com.example.BookingService.Data.mapper.ServicesMapper;
+import com.example.BookingService.Domain.model.BranchServiceModel;
 import com.example.BookingService.Domain.dto.ServicesResponseDTO;
 import com.example.BookingService.Data.repository.BranchServiceRepository;
 import com.example.BookingService.Data.repository.ServicesRepository; // Needed for joins
@@ -14,14 +16,17 @@ public class BranchServiceService {
     private final BranchServiceRepository branchServiceRepository;
     private final ServicesRepository servicesRepository;
     private final ServicesMapper serviceMapper;
+    private final BranchServiceMapper branchServiceMapper;
 
     public BranchServiceService(
             BranchServiceRepository branchServiceRepository,
             ServicesRepository servicesRepository,
-            ServicesMapper serviceMapper) {
+            ServicesMapper serviceMapper,
+            BranchServiceMapper branchServiceMapper) {
         this.branchServiceRepository = branchServiceRepository;
         this.servicesRepository = servicesRepository;
         this.serviceMapper = serviceMapper;
+        this.branchServiceMapper = branchServiceMapper;
     }
 
     public Mono<Integer> getMaxCapacity(Long branchId, Long serviceId) {
@@ -32,6 +37,15 @@ public class BranchServiceService {
                 )));
     }
 
+    // Full capacity rule, including the slot layout when the branch books by time slot
+    public Mono<BranchServiceModel> getCapacityRule(Long branchId, Long serviceId) {
+        return branchServiceRepository.findByBranchAndService(branchId, serviceId)
+                .map(branchServiceMapper::toDomain)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException(
+                        String.format("Capacity rule not found for Branch ID %d and Service ID %d.", branchId, serviceId)
+                )));
+    }
+
     public Flux<ServicesResponseDTO> getServicesByBranch(Long branchId) {
 
         // 1. Get the list of service IDs linked to the branch
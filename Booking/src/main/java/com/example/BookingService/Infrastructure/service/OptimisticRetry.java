@@ -0,0 +1,67 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Infrastructure.deadline.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+import static org.springframework.http.HttpStatus.CONFLICT;
+
+// Re-runs a read-check-write transaction when a concurrent writer bumped the booking's version.
+// The whole pipeline is re-subscribed, so every attempt re-reads the booking and re-checks its status.
+@Component
+public class OptimisticRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+
+    public OptimisticRetry(
+            MeterRegistry meterRegistry,
+            @Value("${booking.optimistic-retry.max-retries:3}") int maxRetries,
+            @Value("${booking.optimistic-retry.min-backoff:20ms}") Duration minBackoff,
+            @Value("${booking.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public <T> Mono<T> retry(String operation, Mono<T> transaction) {
+        Counter conflicts = meterRegistry.counter("booking.optimistic.conflicts", "operation", operation);
+        Counter retries = meterRegistry.counter("booking.optimistic.retries", "operation", operation);
+        Counter exhausted = meterRegistry.counter("booking.optimistic.exhausted", "operation", operation);
+
+        // Backing off past the request deadline only delays the 504, so retries stop there
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            return transaction
+                    .doOnError(OptimisticLockingFailureException.class, e -> conflicts.increment())
+                    .retryWhen(Retry.backoff(maxRetries, minBackoff)
+                            .maxBackoff(maxBackoff)
+                            .jitter(0.5)
+                            .filter(e -> e instanceof OptimisticLockingFailureException
+                                    && (deadline == null || !deadline.isExpired()))
+                            .doBeforeRetry(signal -> retries.increment())
+                            .onRetryExhaustedThrow((spec, signal) -> {
+                                exhausted.increment();
+                                return new ResponseStatusException(
+                                        CONFLICT,
+                                        "The booking was changed concurrently. Please try again."
+                                );
+                            }))
+                    .onErrorMap(OptimisticLockingFailureException.class, e -> {
+                        meterRegistry.counter("booking.deadline.expired", "stage", "retry").increment();
+                        return Deadline.exceeded();
+                    });
+        });
+    }
+}
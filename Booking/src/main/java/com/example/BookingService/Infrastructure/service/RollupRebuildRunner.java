@@ -0,0 +1,33 @@
+package com.example.BookingService.Infrastructure.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Backfill from the command line:
+//   java -jar booking.jar --rebuild-rollups --from=2025-01-01 --to=2025-12-31
+@RequiredArgsConstructor
+@Component
+public class RollupRebuildRunner implements ApplicationRunner {
+
+    private final BookingRollupService bookingRollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rebuild-rollups")) {
+            return;
+        }
+        LocalDate from = option(args, "from", LocalDate.of(2000, 1, 1));
+        LocalDate to = option(args, "to", LocalDate.now().plusYears(1));
+        bookingRollupService.rebuild(from, to).block();
+    }
+
+    private LocalDate option(ApplicationArguments args, String name, LocalDate fallback) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? fallback : LocalDate.parse(values.get(0));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.BookingService.Infrastructure.service;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Domain.model.SlotOccupancy;
+import com.example.BookingService.Domain.model.SlotSchedule;
+import com.example.BookingService.Infrastructure.cache.CacheInvalidationBus;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory slot occupancy per branch/service/day.
+// Each day is loaded once with a single query and then kept up to date by BookingService.
+// Bookings made by other instances evict the day through the CacheInvalidationBus; entries are
+// also reloaded after the TTL, which covers the time the bus is disconnected.
+@Component
+public class SlotOccupancyIndex {
+
+    public static final String CACHE_NAMESPACE = "slots";
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Duration ttl;
+    private final Map<Key, Entry> occupancies = new ConcurrentHashMap<>();
+
+    public SlotOccupancyIndex(
+            BookingRepository bookingRepository,
+            CacheInvalidationBus invalidationBus,
+            @Value("${booking.slots.cache-ttl:30s}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.invalidationBus = invalidationBus;
+        this.ttl = ttl;
+        invalidationBus.register(CACHE_NAMESPACE, this::onInvalidated, occupancies::clear);
+    }
+
+    public Mono<SlotOccupancy> occupancy(Long branchId, Long serviceId, LocalDate date, SlotSchedule schedule) {
+        if (occupancies.size() > MAX_ENTRIES) {
+            evictPastDays();
+        }
+        Key key = new Key(branchId, serviceId, date);
+        long now = System.nanoTime();
+        Entry entry = occupancies.compute(key, (k, current) -> current == null || current.isExpired(now)
+                ? new Entry(k, schedule, now + ttl.toNanos())
+                : current);
+        return entry.loaded
+                .doOnError(e -> occupancies.remove(key, entry));
+    }
+
+    // Gives the seat of a booking that was cancelled, rescheduled or never committed back.
+    // Only an occupancy that is loaded and current is changed; a day still loading or past its
+    // TTL may or may not contain the booking, so it is dropped and loaded again when next needed.
+    public void release(BookingEntity booking) {
+        if (booking.getSlot_start() == null) {
+            return;
+        }
+        Key key = new Key(booking.getBranch_id(), booking.getService_id(), booking.getBooking_date());
+        Entry entry = occupancies.get(key);
+        if (entry == null) {
+            return;
+        }
+        SlotOccupancy occupancy = entry.occupancy;
+        if (occupancy != null && !entry.isExpired(System.nanoTime())) {
+            occupancy.release(occupancy.getSchedule().indexOf(booking.getSlot_start()), seatOf(booking));
+        } else {
+            occupancies.remove(key, entry);
+        }
+    }
+
+    // Drops the booking's day, e.g. after the database showed it is out of date
+    public void evict(BookingEntity booking) {
+        occupancies.remove(new Key(booking.getBranch_id(), booking.getService_id(), booking.getBooking_date()));
+    }
+
+    // Makes the other instances reload the day after a committed booking change; every day of
+    // the branch and service when the date is null
+    public void publishChange(Long branchId, Long serviceId, LocalDate date) {
+        invalidationBus.publish(CACHE_NAMESPACE,
+                branchId + ":" + serviceId + (date == null ? "" : ":" + date));
+    }
+
+    private void onInvalidated(String key) {
+        String[] parts = key.split(":");
+        Long branchId = Long.valueOf(parts[0]);
+        Long serviceId = Long.valueOf(parts[1]);
+        LocalDate date = parts.length > 2 ? LocalDate.parse(parts[2]) : null;
+        occupancies.keySet().removeIf(cached -> cached.branchId().equals(branchId)
+                && cached.serviceId().equals(serviceId)
+                && (date == null || cached.date().equals(date)));
+    }
+
+    private Mono<SlotOccupancy> load(Key key, SlotSchedule schedule) {
+        return bookingRepository.findActiveSlots(key.branchId(), key.serviceId(), key.date())
+                .contextWrite(BookingShards.forBranch(key.branchId()))
+                .reduceWith(() -> new SlotOccupancy(schedule), (occupancy, slot) -> {
+                    occupancy.add(schedule.indexOf(slot.slot_start()), slot.slot_seat() == null ? -1 : slot.slot_seat());
+                    return occupancy;
+                });
+    }
+
+    private static int seatOf(BookingEntity booking) {
+        return booking.getSlot_seat() == null ? -1 : booking.getSlot_seat();
+    }
+
+    private void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        occupancies.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    private record Key(Long branchId, Long serviceId, LocalDate date) {
+    }
+
+    private final class Entry {
+
+        private final long expiresAtNanos;
+        private final Mono<SlotOccupancy> loaded;
+        // Set once the load finished; only then can seats be given back into it
+        private volatile SlotOccupancy occupancy;
+
+        private Entry(Key key, SlotSchedule schedule, long expiresAtNanos) {
+            this.expiresAtNanos = expiresAtNanos;
+            this.loaded = load(key, schedule)
+                    .doOnNext(loadedOccupancy -> occupancy = loadedOccupancy)
+                    .cache();
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// Shard layout of the booking data. Every automotive group lives on one shard, and a branch
+// is routed to the shard of its group; queries pick their shard from the Reactor context.
+// Without booking.sharding.enabled there is a single shard and the context keys are ignored.
+@Component
+public class BookingShards {
+
+    public static final String SHARD_KEY = "booking.shard";
+    public static final String BRANCH_KEY = "booking.shard.branch";
+
+    private final boolean sharded;
+    private final String defaultShard;
+    private final Map<String, ConnectionFactoryOptions> options = new LinkedHashMap<>();
+    private volatile Map<Long, String> branchShards = Map.of();
+
+    public BookingShards(
+            ShardingProperties properties,
+            @Value("${spring.r2dbc.url}") String url,
+            @Value("${spring.r2dbc.username}") String username,
+            @Value("${spring.r2dbc.password}") String password) {
+        this.sharded = properties.isEnabled();
+        this.defaultShard = properties.getDefaultShard();
+        if (sharded) {
+            if (!properties.getShards().containsKey(defaultShard)) {
+                throw new IllegalStateException(
+                        "booking.sharding.shards must define the default shard '" + defaultShard + "'");
+            }
+            properties.getShards().forEach((name, shard) ->
+                    options.put(name, options(shard.getUrl(), shard.getUsername(), shard.getPassword())));
+        } else {
+            options.put(defaultShard, options(url, username, password));
+        }
+    }
+
+    public boolean isSharded() {
+        return sharded;
+    }
+
+    public String defaultShard() {
+        return defaultShard;
+    }
+
+    public Set<String> names() {
+        return options.keySet();
+    }
+
+    public ConnectionFactoryOptions options(String shard) {
+        ConnectionFactoryOptions shardOptions = options.get(shard);
+        if (shardOptions == null) {
+            throw new IllegalArgumentException("Unknown booking shard: " + shard);
+        }
+        return shardOptions;
+    }
+
+    public String shardOfBranch(Long branchId) {
+        return branchShards.getOrDefault(branchId, defaultShard);
+    }
+
+    void updateDirectory(Map<Long, String> branchShards) {
+        this.branchShards = Map.copyOf(branchShards);
+    }
+
+    public static Context forShard(String shard) {
+        return Context.of(SHARD_KEY, shard);
+    }
+
+    public static Context forBranch(Long branchId) {
+        return Context.of(BRANCH_KEY, branchId);
+    }
+
+    // Runs the query once per shard and merges the results in arrival order
+    public <T> Flux<T> onEachShard(Supplier<? extends Publisher<T>> query) {
+        if (!sharded) {
+            return Flux.defer(query);
+        }
+        return Flux.fromIterable(names())
+                .flatMap(shard -> Flux.defer(query).contextWrite(forShard(shard)));
+    }
+
+    // Same for queries whose rows are sorted: the merged stream keeps that order
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> onEachShard(Supplier<? extends Publisher<T>> query, Comparator<? super T> order) {
+        if (!sharded) {
+            return Flux.defer(query);
+        }
+        List<Flux<T>> perShard = names().stream()
+                .map(shard -> Flux.<T>defer(query).contextWrite(forShard(shard)))
+                .toList();
+        return Flux.mergeComparing(order, perShard.toArray(Flux[]::new));
+    }
+
+    // Shard that owns a row, given a query for the row's branch. Every shard is probed; while a
+    // group is being moved the row is on two shards and the directory decides which copy is live.
+    // A shard holding the row is used when the directory does not point at any of them (not yet
+    // refreshed), and the default shard when none has it.
+    public Mono<String> locate(Supplier<Mono<Long>> branchOfRow) {
+        if (!sharded) {
+            return Mono.just(defaultShard);
+        }
+        return Flux.fromIterable(names())
+                .flatMap(shard -> Mono.defer(branchOfRow)
+                        .map(branchId -> Map.entry(shard, branchId))
+                        .contextWrite(forShard(shard)))
+                .collectList()
+                .map(found -> found.stream()
+                        .filter(hit -> hit.getKey().equals(shardOfBranch(hit.getValue())))
+                        .findFirst()
+                        .or(() -> found.stream().findFirst())
+                        .map(Map.Entry::getKey)
+                        .orElse(defaultShard));
+    }
+
+    static ConnectionFactoryOptions options(String url, String username, String password) {
+        return ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// Branch -> automotive group -> shard mapping, stored on the default shard and cached in
+// BookingShards. Loaded before the first request and reloaded on an interval, so a group
+// moved by ShardRebalancer is picked up by every instance within one refresh.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.sharding.enabled", havingValue = "true")
+public class ShardDirectory implements InitializingBean {
+
+    private final DatabaseClient databaseClient;
+    private final BookingShards shards;
+
+    public ShardDirectory(DatabaseClient databaseClient, BookingShards shards) {
+        this.databaseClient = databaseClient;
+        this.shards = shards;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        refresh().block();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.sharding.directory-refresh:30s}",
+            initialDelayString = "${booking.sharding.directory-refresh:30s}")
+    public void scheduledRefresh() {
+        try {
+            refresh().block();
+        } catch (RuntimeException e) {
+            log.warn("Shard directory refresh failed, keeping the previous mapping: {}", e.toString());
+        }
+    }
+
+    public Mono<Void> refresh() {
+        return onDirectory(databaseClient.sql(
+                        "SELECT b.branch_id, g.shard FROM booking_shard_branch b " +
+                        "JOIN booking_shard_group g ON g.automotive_id = b.automotive_id")
+                .map((row, metadata) -> Map.entry(row.get("branch_id", Long.class), row.get("shard", String.class)))
+                .all())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .doOnNext(branchShards -> {
+                    branchShards.values().stream()
+                            .filter(shard -> !shards.names().contains(shard))
+                            .findAny()
+                            .ifPresent(shard -> {
+                                throw new IllegalStateException("Shard directory references unknown shard " + shard);
+                            });
+                    shards.updateDirectory(branchShards);
+                })
+                .then();
+    }
+
+    public Mono<String> shardOfGroup(Long automotiveId) {
+        return onDirectory(databaseClient.sql("SELECT shard FROM booking_shard_group WHERE automotive_id = :automotiveId")
+                .bind("automotiveId", automotiveId)
+                .map((row, metadata) -> row.get("shard", String.class))
+                .one())
+                .defaultIfEmpty(shards.defaultShard());
+    }
+
+    public Flux<Long> branchesOfGroup(Long automotiveId) {
+        return onDirectory(databaseClient.sql("SELECT branch_id FROM booking_shard_branch WHERE automotive_id = :automotiveId")
+                .bind("automotiveId", automotiveId)
+                .map((row, metadata) -> row.get("branch_id", Long.class))
+                .all());
+    }
+
+    public Mono<Void> assignGroup(Long automotiveId, String shard) {
+        return onDirectory(databaseClient.sql(
+                        "INSERT INTO booking_shard_group (automotive_id, shard) VALUES (:automotiveId, :shard) " +
+                        "ON CONFLICT (automotive_id) DO UPDATE SET shard = EXCLUDED.shard")
+                .bind("automotiveId", automotiveId)
+                .bind("shard", shard)
+                .fetch()
+                .rowsUpdated())
+                .then(refresh());
+    }
+
+    private <T> Mono<T> onDirectory(Mono<T> query) {
+        return query.contextWrite(BookingShards.forShard(shards.defaultShard()));
+    }
+
+    private <T> Flux<T> onDirectory(Flux<T> query) {
+        return query.contextWrite(BookingShards.forShard(shards.defaultShard()));
+    }
+}
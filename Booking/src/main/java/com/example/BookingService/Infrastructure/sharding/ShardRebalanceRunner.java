@@ -0,0 +1,40 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Moves an automotive group from the command line:
+//   java -jar booking.jar --spring.profiles.active=sharded --move-group=7 --to-shard=shard2
+@RequiredArgsConstructor
+@Component
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    private final ObjectProvider<ShardRebalancer> shardRebalancer;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("move-group")) {
+            return;
+        }
+        ShardRebalancer rebalancer = shardRebalancer.getIfAvailable();
+        if (rebalancer == null) {
+            throw new IllegalStateException("--move-group requires booking.sharding.enabled=true");
+        }
+        Long automotiveId = Long.valueOf(option(args, "move-group"));
+        String target = option(args, "to-shard");
+        if (target == null) {
+            throw new IllegalArgumentException("--move-group needs --to-shard=<shard name>");
+        }
+        rebalancer.moveGroup(automotiveId, target).block();
+    }
+
+    private String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
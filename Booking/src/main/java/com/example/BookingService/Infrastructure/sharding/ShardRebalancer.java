@@ -0,0 +1,197 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import io.r2dbc.spi.Row;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+// Moves the bookings of one automotive group to another shard:
+//   1. copy the group's bookings to the target (upsert, page by page)
+//   2. point the group at the target in the directory
+//   3. wait one directory refresh so every instance writes to the target
+//   4. copy again to pick up writes that reached the source meanwhile; a row already changed on
+//      the target keeps the target's copy unless the source's version is newer
+//   5. rebuild the group's rollup on the target and delete the group from the source
+// From step 2 on, BookingShards.locate resolves the group's bookings to the target even though
+// both shards hold them, so after step 3 no instance writes to the source copy any more.
+// Booking ids are kept, so each shard's booking sequence must start in its own range (see migration.sql).
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.sharding.enabled", havingValue = "true")
+public class ShardRebalancer {
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final String COPY_PAGE =
+            "SELECT booking_id, service_id, car_id, branch_id, booking_date, slot_start, slot_seat, status_id, comments, " +
+            "version, created_at, updated_at FROM booking " +
+            "WHERE branch_id = ANY(:branchIds) AND booking_id > :after ORDER BY booking_id LIMIT :limit";
+
+    private static final String UPSERT =
+            "INSERT INTO booking (booking_id, service_id, car_id, branch_id, booking_date, slot_start, slot_seat, " +
+            "status_id, comments, version, created_at, updated_at) VALUES (:booking_id, :service_id, :car_id, " +
+            ":branch_id, :booking_date, :slot_start, :slot_seat, :status_id, :comments, :version, :created_at, " +
+            ":updated_at) " +
+            "ON CONFLICT (booking_id) DO UPDATE SET service_id = EXCLUDED.service_id, car_id = EXCLUDED.car_id, " +
+            "branch_id = EXCLUDED.branch_id, booking_date = EXCLUDED.booking_date, slot_start = EXCLUDED.slot_start, " +
+            "slot_seat = EXCLUDED.slot_seat, " +
+            "status_id = EXCLUDED.status_id, comments = EXCLUDED.comments, version = EXCLUDED.version, " +
+            "created_at = EXCLUDED.created_at, updated_at = EXCLUDED.updated_at " +
+            // the re-copy must not undo writes already made on the target
+            "WHERE booking.version < EXCLUDED.version";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final ShardDirectory directory;
+    private final BookingShards shards;
+    private final Duration directoryRefresh;
+
+    public ShardRebalancer(
+            DatabaseClient databaseClient,
+            TransactionalOperator transactionalOperator,
+            ShardDirectory directory,
+            BookingShards shards,
+            ShardingProperties properties) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.directory = directory;
+        this.shards = shards;
+        this.directoryRefresh = properties.getDirectoryRefresh();
+    }
+
+    public Mono<Long> moveGroup(Long automotiveId, String target) {
+        shards.options(target);
+        return Mono.zip(directory.shardOfGroup(automotiveId), directory.branchesOfGroup(automotiveId).collectList())
+                .flatMap(current -> {
+                    String source = current.getT1();
+                    Long[] branchIds = current.getT2().toArray(Long[]::new);
+                    if (source.equals(target)) {
+                        log.info("Automotive group {} is already on shard {}", automotiveId, target);
+                        return Mono.just(0L);
+                    }
+                    log.info("Moving automotive group {} ({} branches) from shard {} to {}",
+                            automotiveId, branchIds.length, source, target);
+                    return copy(branchIds, source, target)
+                            .flatMap(copied -> directory.assignGroup(automotiveId, target)
+                                    .then(Mono.delay(directoryRefresh.plusSeconds(5)))
+                                    .then(copy(branchIds, source, target))
+                                    .then(rebuildRollup(branchIds, target))
+                                    .then(deleteFromSource(branchIds, source))
+                                    .thenReturn(copied))
+                            .doOnNext(copied -> log.info("Moved automotive group {} to shard {}: {} bookings",
+                                    automotiveId, target, copied));
+                });
+    }
+
+    // Keyset pages from the source, each page upserted on the target in one transaction
+    private Mono<Long> copy(Long[] branchIds, String source, String target) {
+        return Mono.just(new Page(0L, 0))
+                .expand(page -> page.lastId() < 0 ? Mono.empty() : copyPage(branchIds, page.lastId(), source, target))
+                .reduce(0L, (copied, page) -> copied + page.rows());
+    }
+
+    // The last page has lastId -1: the source has no more rows
+    private Mono<Page> copyPage(Long[] branchIds, long after, String source, String target) {
+        return databaseClient.sql(COPY_PAGE)
+                .bind("branchIds", branchIds)
+                .bind("after", after)
+                .bind("limit", PAGE_SIZE)
+                .map((row, metadata) -> BookingRow.of(row))
+                .all()
+                .contextWrite(BookingShards.forShard(source))
+                .collectList()
+                .flatMap(page -> page.isEmpty()
+                        ? Mono.just(new Page(-1L, 0))
+                        : upsert(page).thenReturn(new Page(page.get(page.size() - 1).bookingId(), page.size()))
+                                .contextWrite(BookingShards.forShard(target)));
+    }
+
+    private Mono<Void> upsert(List<BookingRow> page) {
+        return Flux.fromIterable(page)
+                .concatMap(row -> {
+                    DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UPSERT);
+                    spec = bind(spec, "booking_id", row.bookingId(), Long.class);
+                    spec = bind(spec, "service_id", row.serviceId(), Long.class);
+                    spec = bind(spec, "car_id", row.carId(), Long.class);
+                    spec = bind(spec, "branch_id", row.branchId(), Long.class);
+                    spec = bind(spec, "booking_date", row.bookingDate(), LocalDate.class);
+                    spec = bind(spec, "slot_start", row.slotStart(), LocalTime.class);
+                    spec = bind(spec, "slot_seat", row.slotSeat(), Integer.class);
+                    spec = bind(spec, "status_id", row.statusId(), Long.class);
+                    spec = bind(spec, "comments", row.comments(), String.class);
+                    spec = bind(spec, "version", row.version(), Long.class);
+                    spec = bind(spec, "created_at", row.createdAt(), LocalDateTime.class);
+                    spec = bind(spec, "updated_at", row.updatedAt(), LocalDateTime.class);
+                    return spec.fetch().rowsUpdated();
+                })
+                .then()
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Void> rebuildRollup(Long[] branchIds, String target) {
+        return databaseClient.sql(
+                        "INSERT INTO booking_daily_rollup (branch_id, service_id, booking_date, status_id, booking_count) " +
+                        "SELECT branch_id, service_id, booking_date, status_id, COUNT(*) FROM booking " +
+                        "WHERE branch_id = ANY(:branchIds) GROUP BY branch_id, service_id, booking_date, status_id " +
+                        "ON CONFLICT (branch_id, booking_date, service_id, status_id) " +
+                        "DO UPDATE SET booking_count = EXCLUDED.booking_count")
+                .bind("branchIds", branchIds)
+                .fetch()
+                .rowsUpdated()
+                .then()
+                .contextWrite(BookingShards.forShard(target));
+    }
+
+    private Mono<Void> deleteFromSource(Long[] branchIds, String source) {
+        return databaseClient.sql("DELETE FROM booking WHERE branch_id = ANY(:branchIds)")
+                .bind("branchIds", branchIds)
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("DELETE FROM booking_daily_rollup WHERE branch_id = ANY(:branchIds)")
+                        .bind("branchIds", branchIds)
+                        .fetch()
+                        .rowsUpdated())
+                .as(transactionalOperator::transactional)
+                .then()
+                .contextWrite(BookingShards.forShard(source));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(
+            DatabaseClient.GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private record Page(long lastId, int rows) {
+    }
+
+    private record BookingRow(Long bookingId, Long serviceId, Long carId, Long branchId, LocalDate bookingDate,
+                              LocalTime slotStart, Integer slotSeat, Long statusId, String comments, Long version,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static BookingRow of(Row row) {
+            return new BookingRow(
+                    row.get("booking_id", Long.class),
+                    row.get("service_id", Long.class),
+                    row.get("car_id", Long.class),
+                    row.get("branch_id", Long.class),
+                    row.get("booking_date", LocalDate.class),
+                    row.get("slot_start", LocalTime.class),
+                    row.get("slot_seat", Integer.class),
+                    row.get("status_id", Long.class),
+                    row.get("comments", String.class),
+                    row.get("version", Long.class),
+                    row.get("created_at", LocalDateTime.class),
+                    row.get("updated_at", LocalDateTime.class));
+        }
+    }
+}
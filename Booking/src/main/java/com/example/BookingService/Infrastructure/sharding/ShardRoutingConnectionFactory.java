@@ -0,0 +1,53 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Picks the shard pool for each connection: an explicit shard in the Reactor context wins,
+// otherwise the shard of the branch in the context, otherwise the default shard.
+// Transactions bind the routed connection, so each transaction stays on one shard.
+public class ShardRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements DisposableBean {
+
+    private final BookingShards shards;
+    private final Map<String, ConnectionPool> pools;
+
+    public ShardRoutingConnectionFactory(BookingShards shards, Map<String, ConnectionPool> pools) {
+        this.shards = shards;
+        this.pools = Map.copyOf(pools);
+        setTargetConnectionFactories(Map.copyOf(pools));
+        setDefaultTargetConnectionFactory(pools.get(shards.defaultShard()));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            if (context.hasKey(BookingShards.SHARD_KEY)) {
+                return Mono.just(context.get(BookingShards.SHARD_KEY));
+            }
+            if (context.hasKey(BookingShards.BRANCH_KEY)) {
+                Long branchId = context.get(BookingShards.BRANCH_KEY);
+                return Mono.just(shards.shardOfBranch(branchId));
+            }
+            return Mono.empty();
+        });
+    }
+
+    public ConnectionPool pool(String shard) {
+        return pools.get(shard);
+    }
+
+    public Collection<ConnectionPool> pools() {
+        return pools.values();
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(ConnectionPool::dispose);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Replaces the single auto-configured pool with one pool per shard behind a router.
+// Repositories, DatabaseClient and the transaction manager all use the router.
+@Configuration
+@ConditionalOnProperty(name = "booking.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingConnectionFactory connectionFactory(BookingShards shards, ShardingProperties properties) {
+        Map<String, ConnectionPool> pools = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> pools.put(name, new ConnectionPool(
+                ConnectionPoolConfiguration.builder(ConnectionFactories.get(shards.options(name)))
+                        .name("booking-" + name)
+                        .maxSize(shard.getMaxSize())
+                        .build())));
+        return new ShardRoutingConnectionFactory(shards, pools);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "booking.sharding")
+public class ShardingProperties {
+
+    // When disabled the service uses spring.r2dbc.* as its single database
+    private boolean enabled = false;
+    // Holds the shard directory and every branch that is not assigned to a group
+    private String defaultShard = "default";
+    // How often each instance reloads the branch -> shard directory
+    private Duration directoryRefresh = Duration.ofSeconds(30);
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maxSize = 10;
+    }
+}
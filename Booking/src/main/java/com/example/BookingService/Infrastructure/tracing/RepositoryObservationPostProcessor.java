@@ -0,0 +1,48 @@
+package com.example.BookingService.Infrastructure.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Wraps every Spring Data repository so each reactive call becomes its own
+// "repository" span (tagged with repository and method), nested under the current request.
+public class RepositoryObservationPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ObservationRegistry> observationRegistry;
+
+    public RepositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository<?, ?>)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            String method = invocation.getMethod().getName();
+            if (result instanceof Mono<?> mono) {
+                return mono.name("repository")
+                        .tag("repository", beanName)
+                        .tag("method", method)
+                        .tap(Micrometer.observation(observationRegistry.getObject()));
+            }
+            if (result instanceof Flux<?> flux) {
+                return flux.name("repository")
+                        .tag("repository", beanName)
+                        .tag("method", method)
+                        .tap(Micrometer.observation(observationRegistry.getObject()));
+            }
+            return result;
+        });
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.BookingService.Infrastructure.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.nio.file.Path;
+
+// Trace context flows through WebFlux and the Reactor context (spring.reactor.context-propagation=auto).
+// Spans are exported over OTLP to a collector and, when tracing.file.enabled is set, to a local file.
+// The sampling rate is management.tracing.sampling.probability.
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public static RepositoryObservationPostProcessor repositoryObservationPostProcessor(
+            ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new RepositoryObservationPostProcessor(observationRegistry);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(
+            ReactiveTransactionManager transactionManager,
+            ObservationRegistry observationRegistry) {
+        return new ObservedTransactionalOperator(TransactionalOperator.create(transactionManager), observationRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file.enabled", havingValue = "true")
+    public SpanExporter fileSpanExporter(@Value("${tracing.file.path:logs/spans.ndjson}") String path) {
+        return new FileSpanExporter(Path.of(path));
+    }
+}
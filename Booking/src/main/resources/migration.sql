@@ -0,0 +1,138 @@
+-- Migration script for the Booking service tables
+-- Run this in pgAdmin or psql to update your database
+
+-- Time-slot booking: optional slot layout per branch/service and the booked slot per booking
+ALTER TABLE branch_service ADD COLUMN IF NOT EXISTS slot_minutes INTEGER;
+ALTER TABLE branch_service ADD COLUMN IF NOT EXISTS open_time TIME;
+ALTER TABLE branch_service ADD COLUMN IF NOT EXISTS close_time TIME;
+ALTER TABLE branch_service ADD COLUMN IF NOT EXISTS capacity_per_slot INTEGER;
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS slot_start TIME;
+
+-- Seat within the slot: each active booking of a slot holds one of its capacity_per_slot seats, and
+-- a seat is held once, so instances that both reserved the last seat in memory cannot both commit.
+-- Existing active bookings are numbered per slot first.
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS slot_seat INTEGER;
+UPDATE booking b SET slot_seat = numbered.seat
+FROM (SELECT booking_id,
+             ROW_NUMBER() OVER (PARTITION BY branch_id, service_id, booking_date, slot_start ORDER BY booking_id) - 1 AS seat
+      FROM booking WHERE status_id = 1 AND slot_start IS NOT NULL) numbered
+WHERE b.booking_id = numbered.booking_id AND b.slot_seat IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_booking_active_slot_seat
+    ON booking(branch_id, service_id, booking_date, slot_start, slot_seat)
+    WHERE status_id = 1 AND slot_start IS NOT NULL;
+
+-- Loads the occupancy of one branch/service/day in a single index scan
+CREATE INDEX IF NOT EXISTS idx_booking_branch_service_date_active
+    ON booking(branch_id, service_id, booking_date)
+    WHERE status_id = 1;
+
+-- Daily utilization rollup, maintained by BookingService on every status change.
+-- Backfill with POST /api/reports/utilization/rebuild or --rebuild-rollups.
+CREATE TABLE IF NOT EXISTS booking_daily_rollup (
+    branch_id BIGINT NOT NULL,
+    service_id BIGINT NOT NULL,
+    booking_date DATE NOT NULL,
+    status_id BIGINT NOT NULL,
+    booking_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (branch_id, booking_date, service_id, status_id)
+);
+
+-- Optimistic locking for booking updates
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Terminal status for PENDING bookings whose date has passed
+INSERT INTO status (status_id, status_name) VALUES (5, 'EXPIRED') ON CONFLICT (status_id) DO NOTHING;
+
+-- Lets the expiry job find the oldest stale PENDING bookings without scanning the table
+CREATE INDEX IF NOT EXISTS idx_booking_pending_date
+    ON booking(booking_date, booking_id)
+    WHERE status_id = 1;
+
+-- Comments are capped at 500 characters (BookingService rejects longer ones) so that a day-sheet
+-- index entry stays well below the 2704-byte B-tree limit. Longer legacy comments are cut first.
+UPDATE booking SET comments = LEFT(comments, 500) WHERE LENGTH(comments) > 500;
+ALTER TABLE booking ALTER COLUMN comments TYPE VARCHAR(500);
+
+-- Branch/date-range scans for the booking export, in export order. Also covers every column of
+-- the branch day sheet, which fills with an index-only scan (replaces idx_booking_branch_date).
+CREATE INDEX IF NOT EXISTS idx_booking_day_sheet
+    ON booking(branch_id, booking_date, booking_id)
+    INCLUDE (service_id, car_id, slot_start, status_id, comments);
+DROP INDEX IF EXISTS idx_booking_branch_date;
+
+-- Batch car lookup: latest booking per car
+CREATE INDEX IF NOT EXISTS idx_booking_car_created
+    ON booking(car_id, created_at DESC, booking_id DESC);
+
+-- Sharding by automotive group (only with booking.sharding.enabled).
+-- Every shard runs the full schema, reference tables included; the directory lives on the default shard.
+CREATE TABLE IF NOT EXISTS booking_shard_group (
+    automotive_id BIGINT PRIMARY KEY,
+    shard VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS booking_shard_branch (
+    branch_id BIGINT PRIMARY KEY,
+    automotive_id BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_shard_branch_group
+    ON booking_shard_branch(automotive_id);
+
+-- Booking ids must not collide when a group moves between shards: give shard N its own range, e.g.
+--   SELECT setval('booking_booking_id_seq', GREATEST(N * 1000000000000, (SELECT COALESCE(MAX(booking_id), 1) FROM booking)));
+
+-- Branch opening calendar: weekly closed days (ISO day of week, 1 = Monday) and single closed dates
+CREATE TABLE IF NOT EXISTS branch_weekly_closure (
+    branch_id BIGINT NOT NULL,
+    day_of_week SMALLINT NOT NULL CHECK (day_of_week BETWEEN 1 AND 7),
+    PRIMARY KEY (branch_id, day_of_week)
+);
+
+CREATE TABLE IF NOT EXISTS branch_holiday (
+    id BIGSERIAL PRIMARY KEY,
+    branch_id BIGINT NOT NULL,
+    holiday_date DATE NOT NULL,
+    description VARCHAR(200),
+    UNIQUE (branch_id, holiday_date)
+);
+
+-- Admin search shapes (BookingSearchRepository.Shape): equality filters first, then the keyset order.
+-- branch + date uses idx_booking_day_sheet.
+CREATE INDEX IF NOT EXISTS idx_booking_branch_status_date
+    ON booking(branch_id, status_id, booking_date, booking_id);
+CREATE INDEX IF NOT EXISTS idx_booking_branch_service_date
+    ON booking(branch_id, service_id, booking_date, booking_id);
+CREATE INDEX IF NOT EXISTS idx_booking_branch_service_status_date
+    ON booking(branch_id, service_id, status_id, booking_date, booking_id);
+
+-- Audit trail of booking status transitions, written in batches by BookingAuditLog (default shard)
+CREATE TABLE IF NOT EXISTS booking_audit (
+    id BIGSERIAL PRIMARY KEY,
+    booking_id BIGINT NOT NULL,
+    car_id BIGINT,
+    branch_id BIGINT,
+    from_status_id BIGINT,
+    to_status_id BIGINT NOT NULL,
+    old_date DATE,
+    new_date DATE,
+    actor VARCHAR(100) NOT NULL,
+    occurred_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_audit_booking
+    ON booking_audit(booking_id, occurred_at);
+
+-- One row per reminder sent, inserted by the instance that claims it before delivery, so
+-- several Booking instances loading the same window send each reminder once. Rows older than
+-- booking.reminders.claim-retention are deleted on refresh.
+CREATE TABLE IF NOT EXISTS booking_reminder_claim (
+    booking_id BIGINT NOT NULL,
+    remind_before_seconds BIGINT NOT NULL,
+    claimed_at TIMESTAMPTZ NOT NULL,
+    PRIMARY KEY (booking_id, remind_before_seconds)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_reminder_claim_claimed_at
+    ON booking_reminder_claim(claimed_at);
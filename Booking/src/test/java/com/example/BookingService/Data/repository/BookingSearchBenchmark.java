@@ -0,0 +1,144 @@
+package com.example.BookingService.Data.repository;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Domain.model.BookingSearchCriteria;
+import com.example.BookingService.Domain.model.BookingStatus;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Latency of one page of the admin search per filter shape, against a booking table of
+// booking.rows rows (10M by default) in a Postgres container, with the shape indexes taken from
+// migration.sql. Loading the table takes minutes, so it happens once per run: the benchmark runs
+// in the JMH JVM (fork 0) and every shape shares the same database.
+//   ./mvnw -Pbench -DskipTests test -Dbench=BookingSearch
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(0)
+public class BookingSearchBenchmark {
+
+	static final int BRANCHES = 200;
+	static final int SERVICES = 20;
+	static final int DAYS = 730;
+	static final LocalDate FIRST_DAY = LocalDate.now().minusDays(DAYS / 2);
+
+	static final String SCHEMA = """
+			CREATE TABLE IF NOT EXISTS booking (
+			    booking_id BIGSERIAL PRIMARY KEY, service_id BIGINT, car_id BIGINT, branch_id BIGINT,
+			    booking_date DATE, slot_start TIME, slot_seat INTEGER, status_id BIGINT, comments VARCHAR(500),
+			    version BIGINT NOT NULL DEFAULT 0, created_at TIMESTAMP, updated_at TIMESTAMP)
+			""";
+
+	static final String LOAD = """
+			INSERT INTO booking (service_id, car_id, branch_id, booking_date, status_id, version, created_at, updated_at)
+			SELECT 1 + floor(random() * %d), 1 + floor(random() * 1000000), 1 + floor(random() * %d),
+			       DATE '%s' + floor(random() * %d)::int, 1 + floor(random() * 5), 0, now(), now()
+			FROM generate_series(1, %d)
+			""";
+
+	static Database database;
+
+	@Param({"BRANCH_DATE", "BRANCH_STATUS_DATE", "BRANCH_SERVICE_DATE", "BRANCH_SERVICE_STATUS_DATE"})
+	BookingSearchRepository.Shape shape;
+
+	BookingSearchCriteria firstPage;
+	BookingSearchCriteria laterPage;
+
+	@Setup
+	public void setUp() throws IOException {
+		if (database == null) {
+			database = new Database(Long.getLong("booking.rows", 10_000_000L));
+		}
+		BookingSearchCriteria.BookingSearchCriteriaBuilder criteria = BookingSearchCriteria.builder()
+				.branchId(17L)
+				.from(FIRST_DAY.plusDays(300))
+				.to(FIRST_DAY.plusDays(390))
+				.limit(50);
+		if (shape == BookingSearchRepository.Shape.BRANCH_SERVICE_DATE
+				|| shape == BookingSearchRepository.Shape.BRANCH_SERVICE_STATUS_DATE) {
+			criteria.serviceId(5L);
+		}
+		if (shape == BookingSearchRepository.Shape.BRANCH_STATUS_DATE
+				|| shape == BookingSearchRepository.Shape.BRANCH_SERVICE_STATUS_DATE) {
+			criteria.status(BookingStatus.PENDING);
+		}
+		firstPage = criteria.build();
+		laterPage = firstPage.toBuilder().afterDate(FIRST_DAY.plusDays(345)).afterId(0L).build();
+		if (BookingSearchRepository.Shape.of(firstPage) != shape) {
+			throw new IllegalStateException("criteria do not match " + shape);
+		}
+	}
+
+	@Benchmark
+	public List<BookingEntity> firstPage() {
+		return database.repository.search(firstPage).collectList().block();
+	}
+
+	@Benchmark
+	public List<BookingEntity> laterPage() {
+		return database.repository.search(laterPage).collectList().block();
+	}
+
+	static final class Database {
+
+		final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+		final BookingSearchRepository repository;
+
+		Database(long rows) throws IOException {
+			postgres.start();
+			Runtime.getRuntime().addShutdownHook(new Thread(postgres::stop));
+			ConnectionFactory connectionFactory = ConnectionFactories.get("r2dbc:pool:postgresql://"
+					+ postgres.getUsername() + ":" + postgres.getPassword() + "@" + postgres.getHost() + ":"
+					+ postgres.getMappedPort(5432) + "/" + postgres.getDatabaseName() + "?maxSize=4");
+			DatabaseClient db = DatabaseClient.create(connectionFactory);
+
+			db.sql(SCHEMA).then().block();
+			db.sql(LOAD.formatted(SERVICES, BRANCHES, FIRST_DAY, DAYS, rows)).then().block();
+			for (String statement : shapeIndexes()) {
+				db.sql(statement).then().block();
+			}
+			db.sql("VACUUM ANALYZE booking").then().block();
+			repository = new BookingSearchRepository(new R2dbcEntityTemplate(connectionFactory));
+		}
+
+		// The documented index of every shape, exactly as migration.sql creates it
+		static List<String> shapeIndexes() throws IOException {
+			String migration = new ClassPathResource("migration.sql").getContentAsString(StandardCharsets.UTF_8)
+					.lines()
+					.filter(line -> !line.strip().startsWith("--"))
+					.collect(Collectors.joining("\n"));
+			List<String> statements = Arrays.asList(migration.split(";"));
+			return Arrays.stream(BookingSearchRepository.Shape.values())
+					.map(shape -> statements.stream()
+							.filter(statement -> statement.contains("CREATE INDEX IF NOT EXISTS " + shape.getIndex() + "\n"))
+							.findFirst()
+							.orElseThrow(() -> new IllegalStateException("migration.sql has no index " + shape.getIndex())))
+					.toList();
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.example.BookingService.Domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClosureCalendarTests {
+
+	// 2025-01-06 is a Monday
+	private static final LocalDate MONDAY = LocalDate.of(2025, 1, 6);
+
+	@Test
+	void skipsWeeklyClosedDaysAndHolidays() {
+		ClosureCalendar calendar = ClosureCalendar.compile(MONDAY, 100,
+				List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY), List.of(MONDAY.plusDays(6)));
+
+		assertEquals(MONDAY.plusDays(3), calendar.nextOpen(MONDAY.plusDays(3)));
+		// Friday, Saturday and the Sunday holiday are skipped
+		assertEquals(MONDAY.plusDays(7), calendar.nextOpen(MONDAY.plusDays(4)));
+		assertFalse(calendar.isOpen(MONDAY.plusDays(6)));
+		assertTrue(calendar.isOpen(MONDAY.plusDays(13)));
+	}
+
+	@Test
+	void scansAcrossWordsAndPastTheHorizon() {
+		List<LocalDate> holidays = new ArrayList<>();
+		for (int i = 0; i < 70; i++) {
+			holidays.add(MONDAY.plusDays(i));
+		}
+		ClosureCalendar calendar = ClosureCalendar.compile(MONDAY, 70, List.of(DayOfWeek.SUNDAY), holidays);
+
+		// Everything in the horizon is closed; the weekly pattern decides afterwards (day 70 is a Monday)
+		assertEquals(MONDAY.plusDays(70), calendar.nextOpen(MONDAY));
+		assertEquals(MONDAY.plusDays(77), calendar.nextOpen(MONDAY.plusDays(76)));
+	}
+
+	@Test
+	void reportsBranchThatNeverOpens() {
+		ClosureCalendar calendar = ClosureCalendar.compile(MONDAY, 30, List.of(DayOfWeek.values()), List.of());
+
+		assertTrue(calendar.isAlwaysClosed());
+		assertNull(calendar.nextOpen(MONDAY));
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.BookingService.Domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotOccupancyTests {
+
+	private static final LocalTime OPEN = LocalTime.of(8, 0);
+
+	@Test
+	void reservesLowestFreeSeatUntilTheSlotIsFull() {
+		SlotOccupancy occupancy = new SlotOccupancy(new SlotSchedule(OPEN, 30, 4, 2));
+
+		assertEquals(new SlotOccupancy.Reservation(1, 0), occupancy.reserve(1));
+		assertEquals(new SlotOccupancy.Reservation(1, 1), occupancy.reserve(1));
+		assertNull(occupancy.reserve(1), "slot 1 has two seats");
+		assertFalse(occupancy.isFree(1));
+
+		occupancy.release(1, 0);
+		assertTrue(occupancy.isFree(1));
+		// the freed seat is handed out again, not a third one
+		assertEquals(new SlotOccupancy.Reservation(1, 0), occupancy.reserve(1));
+	}
+
+	@Test
+	void firstFreeSlotSkipsFullSlotsAcrossWords() {
+		// 70 slots span two 64-slot words
+		SlotOccupancy occupancy = new SlotOccupancy(new SlotSchedule(OPEN, 5, 70, 1));
+		for (int slot = 0; slot < 66; slot++) {
+			assertEquals(slot, occupancy.reserve(-1).slot());
+		}
+		assertEquals(List.of(OPEN.plusMinutes(66 * 5), OPEN.plusMinutes(67 * 5)), occupancy.freeSlots(2));
+
+		occupancy.reserve(66);
+		occupancy.reserve(67);
+		occupancy.reserve(68);
+		assertEquals(69, occupancy.reserve(-1).slot());
+		assertFalse(occupancy.hasFreeSlot());
+		assertNull(occupancy.reserve(-1), "slots past the last one are never free");
+
+		occupancy.release(3, 0);
+		assertEquals(3, occupancy.reserve(-1).slot());
+	}
+
+	@Test
+	void loadedBookingsTakeTheirSeatsAndMayOverbook() {
+		SlotOccupancy occupancy = new SlotOccupancy(new SlotSchedule(OPEN, 30, 2, 2));
+
+		occupancy.add(0, 1);
+		// a booking stored before seats existed takes the lowest free one
+		occupancy.add(0, -1);
+		assertFalse(occupancy.isFree(0));
+		occupancy.add(0, 2);
+
+		occupancy.release(0, 2);
+		assertFalse(occupancy.isFree(0), "still two of two seats taken");
+		occupancy.release(0, 1);
+		assertEquals(new SlotOccupancy.Reservation(0, 1), occupancy.reserve(0));
+	}
+
+	@Test
+	void ignoresUnknownSlots() {
+		SlotOccupancy occupancy = new SlotOccupancy(new SlotSchedule(OPEN, 30, 2, 1));
+
+		assertNull(occupancy.reserve(5));
+		occupancy.add(-1, 0);
+		occupancy.release(7, 0);
+		occupancy.release(0, 0);
+		assertEquals(2, occupancy.freeSlots(10).size());
+	}
+}
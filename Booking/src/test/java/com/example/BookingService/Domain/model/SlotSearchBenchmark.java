@@ -0,0 +1,63 @@
+package com.example.BookingService.Domain.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+// Slot search on a day where every slot but the last is full, the worst case for the scan.
+// Lookups of a requested slot should not move with the slot count; the first-free search
+// grows by one word per 64 slots.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotSearchBenchmark {
+
+	@Param({"16", "64", "256", "1024", "4096"})
+	int slotCount;
+
+	SlotOccupancy occupancy;
+	int lastSlot;
+
+	@Setup
+	public void setUp() {
+		occupancy = new SlotOccupancy(new SlotSchedule(LocalTime.MIDNIGHT, 1, slotCount, 2));
+		lastSlot = slotCount - 1;
+		for (int slot = 0; slot < lastSlot; slot++) {
+			occupancy.add(slot, 0);
+			occupancy.add(slot, 1);
+		}
+	}
+
+	@Benchmark
+	public boolean isFree() {
+		return occupancy.isFree(lastSlot);
+	}
+
+	@Benchmark
+	public SlotOccupancy.Reservation reserveRequestedSlot() {
+		SlotOccupancy.Reservation reservation = occupancy.reserve(lastSlot);
+		occupancy.release(reservation.slot(), reservation.seat());
+		return reservation;
+	}
+
+	@Benchmark
+	public SlotOccupancy.Reservation reserveFirstFreeSlot() {
+		SlotOccupancy.Reservation reservation = occupancy.reserve(-1);
+		occupancy.release(reservation.slot(), reservation.seat());
+		return reservation;
+	}
+}
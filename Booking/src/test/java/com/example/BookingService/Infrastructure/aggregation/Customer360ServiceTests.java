@@ -0,0 +1,158 @@
+package com.example.BookingService.Infrastructure.aggregation;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.mapper.BookingMapper;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Domain.dto.Customer360DTO;
+import com.example.BookingService.Infrastructure.deadline.DeadlineExchangeFilter;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import com.example.BookingService.Infrastructure.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class Customer360ServiceTests {
+
+	private static final String CUSTOMER_ID = "6f1c2a3e-0000-4000-8000-000000000001";
+
+	private final List<DisposableServer> stubs = new ArrayList<>();
+
+	@AfterEach
+	void stopStubs() {
+		stubs.forEach(DisposableServer::disposeNow);
+	}
+
+	private String customerStub() {
+		DisposableServer server = HttpServer.create().port(0)
+				.route(routes -> routes.get("/api/customers/phone/{phone}", (request, response) ->
+						response.header("Content-Type", "application/json")
+								.sendString(Mono.just("{\"id\":\"" + CUSTOMER_ID + "\",\"name\":\"Sara\",\"phone\":\""
+										+ request.param("phone") + "\"}"))))
+				.bindNow();
+		stubs.add(server);
+		return "http://localhost:" + server.port();
+	}
+
+	// The first request stalls for firstDelay, every later one answers at once; calls counts them
+	private String customerStub(Duration firstDelay, AtomicInteger calls) {
+		DisposableServer server = HttpServer.create().port(0)
+				.route(routes -> routes.get("/api/customers/phone/{phone}", (request, response) ->
+						Mono.delay(calls.getAndIncrement() == 0 ? firstDelay : Duration.ZERO)
+								.then(response.header("Content-Type", "application/json")
+										.sendString(Mono.just("{\"id\":\"" + CUSTOMER_ID + "\",\"name\":\"Sara\",\"phone\":\""
+												+ request.param("phone") + "\"}")).then())))
+				.bindNow();
+		stubs.add(server);
+		return "http://localhost:" + server.port();
+	}
+
+	private String unknownCustomerStub(AtomicInteger calls) {
+		DisposableServer server = HttpServer.create().port(0)
+				.route(routes -> routes.get("/api/customers/phone/{phone}", (request, response) -> {
+					calls.incrementAndGet();
+					return response.status(404).send();
+				}))
+				.bindNow();
+		stubs.add(server);
+		return "http://localhost:" + server.port();
+	}
+
+	private String demoStub(Duration delay) {
+		DisposableServer server = HttpServer.create().port(0)
+				.route(routes -> routes.get("/api/customer-cars/customer/{customerId}", (request, response) ->
+						Mono.delay(delay).then(response.header("Content-Type", "application/json")
+								.sendString(Mono.just("[{\"id\":7,\"vin\":\"ABC123\",\"automotiveId\":1}]")).then())))
+				.bindNow();
+		stubs.add(server);
+		return "http://localhost:" + server.port();
+	}
+
+	private Customer360Service service(String customerUrl, String demoUrl) {
+		Customer360Properties properties = new Customer360Properties();
+		properties.getCustomerService().setBaseUrl(customerUrl);
+		properties.getDemo().setBaseUrl(demoUrl);
+		properties.getDemo().setTimeout(Duration.ofMillis(300));
+
+		BookingEntity booking = new BookingEntity(1L, 7L, 2L, LocalDate.now().plusDays(1), "oil change");
+		booking.setBooking_id(42L);
+		BookingRepository bookingRepository = mock(BookingRepository.class);
+		when(bookingRepository.findByCarIds(any())).thenReturn(Flux.just(booking));
+
+		return new Customer360Service(properties, bookingRepository, new BookingMapper(),
+				new BookingShards(new ShardingProperties(), "r2dbc:postgresql://localhost/booking", "booking", "booking"),
+				new DeadlineExchangeFilter("X-Request-Timeout-Ms", new SimpleMeterRegistry()),
+				ObservationRegistry.NOOP);
+	}
+
+	@Test
+	void combinesCustomerCarsAndBookings() {
+		Customer360DTO view = service(customerStub(), demoStub(Duration.ZERO))
+				.getByPhone("0100").block(Duration.ofSeconds(5));
+
+		assertNotNull(view);
+		assertEquals("Sara", view.getCustomer().getName());
+		assertEquals(1, view.getCars().size());
+		assertEquals(42L, view.getCars().get(0).getBookings().get(0).getId());
+		assertTrue(view.getDegraded().isEmpty());
+	}
+
+	@Test
+	void returnsPartialResultWhenDemoIsSlow() {
+		Customer360DTO view = service(customerStub(), demoStub(Duration.ofSeconds(2)))
+				.getByPhone("0100").block(Duration.ofSeconds(5));
+
+		assertNotNull(view);
+		assertEquals("Sara", view.getCustomer().getName());
+		assertTrue(view.getCars().isEmpty());
+		assertEquals(List.of(Customer360Service.DEMO), view.getDegraded());
+	}
+
+	@Test
+	void hedgeAnswersWhenTheFirstCallIsSlow() {
+		AtomicInteger calls = new AtomicInteger();
+		Customer360Service service = service(customerStub(Duration.ofSeconds(2), calls), demoStub(Duration.ZERO));
+
+		long started = System.nanoTime();
+		Customer360DTO view = service.getByPhone("0100").block(Duration.ofSeconds(5));
+		Duration took = Duration.ofNanos(System.nanoTime() - started);
+
+		assertNotNull(view);
+		assertEquals("Sara", view.getCustomer().getName());
+		assertTrue(view.getDegraded().isEmpty());
+		assertEquals(2, calls.get());
+		// Answered by the hedge sent after 150ms, well inside the 800ms timeout and the stalled 2s call
+		assertTrue(took.compareTo(Duration.ofSeconds(1)) < 0, () -> "took " + took);
+	}
+
+	@Test
+	void doesNotHedgeANotFound() throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		Customer360Service service = service(unknownCustomerStub(calls), demoStub(Duration.ZERO));
+
+		ResponseStatusException notFound = assertThrows(ResponseStatusException.class,
+				() -> service.getByPhone("0100").block(Duration.ofSeconds(5)));
+		assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+
+		// Past the 150ms hedge delay: the 404 ended the attempt, so no second call went out
+		Thread.sleep(300);
+		assertEquals(1, calls.get());
+	}
+}
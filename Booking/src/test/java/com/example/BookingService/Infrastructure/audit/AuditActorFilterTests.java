@@ -0,0 +1,66 @@
+package com.example.BookingService.Infrastructure.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditActorFilterTests {
+
+	private final AuditActorFilter filter = new AuditActorFilter(new AuditProperties());
+
+	@Test
+	void recordsAPrincipalAsIs() {
+		ServerWebExchange exchange = exchange("X-Actor", "someone-else").mutate()
+				.principal(Mono.just((Principal) () -> "alice"))
+				.build();
+		assertEquals("alice", actorSeenBy(exchange));
+	}
+
+	@Test
+	void marksTheHeaderAsClaimed() {
+		assertEquals("claimed:front-desk-3", actorSeenBy(exchange("X-Actor", " front-desk-3 ")));
+	}
+
+	@Test
+	void leavesTheActorUnsetWithoutPrincipalOrHeader() {
+		assertEquals("unset", actorSeenBy(exchange("X-Other", "x")));
+		assertEquals("unset", actorSeenBy(exchange("X-Actor", "  ")));
+	}
+
+	@Test
+	void truncatesToTheColumnWidth() {
+		String actor = actorSeenBy(exchange("X-Actor", "a".repeat(500)));
+		assertEquals(100, actor.length());
+		assertTrue(actor.startsWith("claimed:"));
+	}
+
+	@Test
+	void clampsTheBatchSizeToTheBindParameterLimit() {
+		assertEquals(500, BookingAuditLog.batchSize(500));
+		assertEquals(7281, BookingAuditLog.batchSize(10_000));
+		assertTrue(BookingAuditLog.MAX_BATCH_SIZE * 9 <= 65_535);
+		assertEquals(1, BookingAuditLog.batchSize(0));
+	}
+
+	private static MockServerWebExchange exchange(String header, String value) {
+		return MockServerWebExchange.from(MockServerHttpRequest.post("/api/bookings").header(header, value));
+	}
+
+	private String actorSeenBy(ServerWebExchange exchange) {
+		AtomicReference<String> actor = new AtomicReference<>();
+		WebFilterChain chain = filtered -> Mono.deferContextual(context -> {
+			actor.set(context.getOrDefault(BookingAuditLog.ACTOR_KEY, "unset"));
+			return Mono.empty();
+		});
+		filter.filter(exchange, chain).block();
+		return actor.get();
+	}
+}
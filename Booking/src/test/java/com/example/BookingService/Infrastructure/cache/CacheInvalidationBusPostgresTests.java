@@ -0,0 +1,83 @@
+package com.example.BookingService.Infrastructure.cache;
+
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import com.example.BookingService.Infrastructure.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two instances' buses on one Postgres: what one publishes reaches the other over LISTEN/NOTIFY.
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationBusPostgresTests {
+
+	@Container
+	static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		buses.forEach(CacheInvalidationBus::stop);
+	}
+
+	@Test
+	void deliversInvalidationsToTheOtherInstancesOnly() throws InterruptedException {
+		List<String> invalidatedOnA = new CopyOnWriteArrayList<>();
+		List<String> invalidatedOnB = new CopyOnWriteArrayList<>();
+		AtomicInteger clearsOnA = new AtomicInteger();
+		CacheInvalidationBus a = bus(invalidatedOnA, clearsOnA);
+		CacheInvalidationBus b = bus(invalidatedOnB, new AtomicInteger());
+		waitFor(() -> a.isConnected() && b.isConnected());
+		assertEquals(1, clearsOnA.get(), "connecting clears the local caches once");
+
+		a.publish("day-sheet", "7:2025-03-09");
+		a.publish("day-sheet", "7:2025-03-09");
+		waitFor(() -> invalidatedOnB.contains("7:2025-03-09"));
+
+		// Notifications arrive in commit order, so once A has B's key it has also seen its own
+		b.publish("day-sheet", "8:2025-03-10");
+		waitFor(() -> invalidatedOnA.contains("8:2025-03-10"));
+
+		assertEquals(List.of("8:2025-03-10"), invalidatedOnA);
+		assertEquals(List.of("7:2025-03-09"), invalidatedOnB);
+	}
+
+	CacheInvalidationBus bus(List<String> invalidated, AtomicInteger clears) {
+		BookingShards shards = new BookingShards(new ShardingProperties(),
+				"r2dbc:postgresql://" + postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/" + postgres.getDatabaseName(),
+				postgres.getUsername(), postgres.getPassword());
+		CacheBusProperties properties = new CacheBusProperties();
+		properties.setCoalesceWindow(Duration.ofMillis(200));
+		properties.setReconnectMinBackoff(Duration.ofMillis(100));
+		CacheInvalidationBus bus = new CacheInvalidationBus(properties, shards,
+				DatabaseClient.create(ConnectionFactories.get(shards.options(shards.defaultShard()))),
+				new SimpleMeterRegistry());
+		bus.register("day-sheet", invalidated::add, clears::incrementAndGet);
+		bus.start();
+		buses.add(bus);
+		return bus;
+	}
+
+	static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(20);
+		}
+	}
+}
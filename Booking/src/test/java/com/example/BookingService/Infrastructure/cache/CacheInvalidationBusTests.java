@@ -0,0 +1,89 @@
+package com.example.BookingService.Infrastructure.cache;
+
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import com.example.BookingService.Infrastructure.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.api.Notification;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationBusTests {
+
+	private final CacheInvalidationBus bus = new CacheInvalidationBus(new CacheBusProperties(),
+			new BookingShards(new ShardingProperties(), "r2dbc:postgresql://localhost/booking", "booking", "secret"),
+			null, new SimpleMeterRegistry());
+
+	static Notification notification(String payload) {
+		return new Notification() {
+			@Override
+			public String getName() {
+				return "booking_cache";
+			}
+
+			@Override
+			public int getProcessId() {
+				return 1;
+			}
+
+			@Override
+			public String getParameter() {
+				return payload;
+			}
+		};
+	}
+
+	@Test
+	void coalescesKeysPublishedBetweenFlushes() {
+		bus.publish("day-sheet", "7:2025-03-09");
+		bus.publish("day-sheet", "7:2025-03-09");
+		bus.publish("slots", "7:3:2025-03-09");
+		bus.publish("slots", null);
+
+		assertEquals(Set.of("day-sheet:7:2025-03-09", "slots:7:3:2025-03-09"), new HashSet<>(bus.drainPending()));
+		assertEquals(List.of(), bus.drainPending());
+	}
+
+	@Test
+	void splitsKeysIntoPayloadsThatFitNotify() {
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			keys.add("day-sheet:" + i + ":2025-03-09");
+		}
+
+		List<String> payloads = bus.payloads(keys);
+
+		assertTrue(payloads.size() > 1);
+		List<String> sent = new ArrayList<>();
+		for (String payload : payloads) {
+			assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= 7500, "pg_notify rejects payloads from 8000 bytes");
+			assertTrue(payload.startsWith(bus.getInstanceId() + "|"));
+			sent.addAll(List.of(payload.substring(payload.indexOf('|') + 1).split("\n")));
+		}
+		assertEquals(keys, sent);
+	}
+
+	@Test
+	void invalidatesKeysFromOtherInstancesOnly() {
+		List<String> invalidated = new ArrayList<>();
+		bus.register("day-sheet", invalidated::add, () -> {
+		});
+		bus.register("slots", key -> {
+			throw new IllegalArgumentException("bad key");
+		}, () -> {
+		});
+
+		bus.onNotification(notification(bus.getInstanceId() + "|day-sheet:1:2025-03-09"));
+		assertEquals(List.of(), invalidated, "own notifications are skipped");
+
+		bus.onNotification(notification("0ther1d|day-sheet:1:2025-03-09\nslots:x\nunknown:3\nday-sheet:2"));
+		bus.onNotification(notification("no sender"));
+		assertEquals(List.of("1:2025-03-09", "2"), invalidated);
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.BookingService.Infrastructure.codec;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.mapper.BookingMapper;
+import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.JacksonJsonEncoder;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/bookings/car/{carId} body cost per response: the old path (entity -> model -> DTO,
+// then the Jackson 3 encoder WebFlux registers by default) against the current one (entity -> DTO,
+// then BookingJsonEncoder). Both encode the Flux element by element into pooled Netty buffers, as
+// WebFlux does for the response; jacksonEncoder isolates the encoder from the mapping step.
+// Divide by rows for the per-row figures; -prof gc gives bytes per op.
+//   ./mvnw -Pbench -DskipTests test -Dbench="BookingJson -prof gc"
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingJsonEncoderBenchmark {
+
+	@Param({"1", "100", "1000"})
+	int rows;
+
+	final BookingMapper mapper = new BookingMapper();
+	final BookingJsonEncoder encoder = new BookingJsonEncoder();
+	final ResolvableType type = ResolvableType.forClass(BookingResponseDTO.class);
+	final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+	// The JSON encoder of the default codecs, which handles every body BookingJsonEncoder does not
+	final JacksonJsonEncoder jackson = ServerCodecConfigurer.create().getWriters().stream()
+			.filter(EncoderHttpMessageWriter.class::isInstance)
+			.map(writer -> ((EncoderHttpMessageWriter<?>) writer).getEncoder())
+			.filter(JacksonJsonEncoder.class::isInstance)
+			.map(JacksonJsonEncoder.class::cast)
+			.findFirst()
+			.orElseThrow();
+
+	List<BookingEntity> entities;
+
+	@Setup
+	public void setUp() {
+		entities = new ArrayList<>(rows);
+		for (int i = 0; i < rows; i++) {
+			BookingEntity booking = new BookingEntity();
+			booking.setBooking_id(1_000_000L + i);
+			booking.setService_id(3L);
+			booking.setCarId(42L);
+			booking.setBranch_id(7L);
+			booking.setBooking_date(LocalDate.of(2025, 3, 9).plusDays(i % 365));
+			booking.setSlot_start(LocalTime.of(8, 0).plusMinutes(30L * (i % 16)));
+			booking.setStatus_id(1L + i % 5);
+			booking.setComments(i % 3 == 0 ? null : "Oil change, customer waits");
+			entities.add(booking);
+		}
+	}
+
+	@Benchmark
+	public int jacksonViaModel() {
+		return size(jackson.encode(Flux.fromIterable(entities).map(entity -> mapper.toDto(mapper.toDomain(entity))),
+				bufferFactory, type, MediaType.APPLICATION_JSON, Map.of()));
+	}
+
+	@Benchmark
+	public int jacksonEncoder() {
+		return size(jackson.encode(Flux.fromIterable(entities).map(mapper::toDto), bufferFactory, type,
+				MediaType.APPLICATION_JSON, Map.of()));
+	}
+
+	@Benchmark
+	public int encoder() {
+		return size(encoder.encode(Flux.fromIterable(entities).map(mapper::toDto), bufferFactory, type,
+				MediaType.APPLICATION_JSON, Map.of()));
+	}
+
+	private static int size(Flux<DataBuffer> body) {
+		return body
+				.map(buffer -> {
+					int size = buffer.readableByteCount();
+					DataBufferUtils.release(buffer);
+					return size;
+				})
+				.reduce(0, Integer::sum)
+				.block();
+	}
+}
@@ -0,0 +1,82 @@
+package com.example.BookingService.Infrastructure.codec;
+
+import com.example.BookingService.Domain.dto.BookingResponseDTO;
+import com.example.BookingService.Domain.model.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJsonEncoderTests {
+
+	private final BookingJsonEncoder encoder = new BookingJsonEncoder();
+	private final ResolvableType type = ResolvableType.forClass(BookingResponseDTO.class);
+
+	private static BookingResponseDTO booking(long id, String comments) {
+		BookingResponseDTO booking = new BookingResponseDTO();
+		booking.setId(id);
+		booking.setService_id(3L);
+		booking.setCar_id(42L);
+		booking.setBranch_id(7L);
+		booking.setBooking_date(LocalDate.of(2025, 3, 9));
+		booking.setSlot_start(LocalTime.of(9, 30));
+		booking.setStatus(BookingStatus.PENDING);
+		booking.setComments(comments);
+		return booking;
+	}
+
+	private String encode(Flux<BookingResponseDTO> rows, MediaType mediaType) {
+		return DataBufferUtils.join(encoder.encode(rows, DefaultDataBufferFactory.sharedInstance, type, mediaType, Map.of()))
+				.map(buffer -> {
+					String json = buffer.toString(StandardCharsets.UTF_8);
+					DataBufferUtils.release(buffer);
+					return json;
+				})
+				.block();
+	}
+
+	@Test
+	void writesArrayInResponseDtoShape() {
+		String json = encode(Flux.just(booking(1, null), booking(2, "Brakes \"squeak\"\nÜbergabe")), MediaType.APPLICATION_JSON);
+
+		assertEquals("[{\"id\":1,\"service_id\":3,\"car_id\":42,\"branch_id\":7,\"booking_date\":\"2025-03-09\","
+				+ "\"slot_start\":\"09:30\",\"status\":\"PENDING\",\"comments\":null},"
+				+ "{\"id\":2,\"service_id\":3,\"car_id\":42,\"branch_id\":7,\"booking_date\":\"2025-03-09\","
+				+ "\"slot_start\":\"09:30\",\"status\":\"PENDING\",\"comments\":\"Brakes \\\"squeak\\\"\\nÜbergabe\"}]", json);
+	}
+
+	@Test
+	void writesEmptyArray() {
+		assertEquals("[]", encode(Flux.empty(), MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void writesOneObjectPerLineForNdjson() {
+		String ndjson = encode(Flux.just(booking(1, null), booking(2, null)), MediaType.APPLICATION_NDJSON);
+
+		String[] lines = ndjson.split("\n");
+		assertEquals(2, lines.length);
+		assertTrue(lines[1].startsWith("{\"id\":2,"));
+		assertTrue(ndjson.endsWith("}\n"));
+	}
+
+	@Test
+	void writesSingleValueForMono() {
+		DataBuffer buffer = encoder.encode(Mono.just(booking(5, null)), DefaultDataBufferFactory.sharedInstance,
+				type, MediaType.APPLICATION_JSON, Map.of()).blockFirst();
+
+		assertNotNull(buffer);
+		assertTrue(buffer.toString(StandardCharsets.UTF_8).startsWith("{\"id\":5,"));
+	}
+}
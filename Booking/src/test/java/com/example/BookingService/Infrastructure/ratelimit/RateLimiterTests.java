@@ -0,0 +1,48 @@
+package com.example.BookingService.Infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTests {
+
+	@Test
+	void rejectsNewKeysWhileEveryBucketIsActive() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setMaxBuckets(2);
+		RateLimiter limiter = new RateLimiter(properties);
+
+		assertTrue(limiter.tryAcquire("a", 1, 1));
+		assertTrue(limiter.tryAcquire("b", 1, 1));
+		assertFalse(limiter.tryAcquire("c", 1, 1), "no bucket has refilled, so there is no room for c");
+		assertFalse(limiter.tryAcquire("d", 1, 1));
+		assertEquals(2, limiter.size());
+
+		// known keys keep their own limit
+		assertFalse(limiter.tryAcquire("a", 1, 1));
+		assertTrue(limiter.tryAcquire("a", 0, 1), "a rate of 0 is not limited");
+	}
+
+	@Test
+	void trustsTheClientHeaderOnlyFromConfiguredProxies() {
+		RateLimitProperties properties = new RateLimitProperties();
+		properties.setTrustedProxies(List.of("10.0.0.1"));
+		RateLimitFilter filter = new RateLimitFilter(new RateLimiter(properties), properties);
+
+		MockServerHttpRequest viaProxy = MockServerHttpRequest.post("/api/bookings")
+				.remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+				.header("X-Client-Id", "fleet-app")
+				.build();
+		MockServerHttpRequest direct = MockServerHttpRequest.post("/api/bookings")
+				.remoteAddress(new InetSocketAddress("192.0.2.7", 40000))
+				.header("X-Client-Id", "anything-goes")
+				.build();
+
+		assertEquals("header:fleet-app", filter.clientIdOf(viaProxy));
+		assertEquals("address:192.0.2.7", filter.clientIdOf(direct));
+	}
+}
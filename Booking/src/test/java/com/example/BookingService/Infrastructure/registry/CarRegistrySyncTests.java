@@ -0,0 +1,144 @@
+package com.example.BookingService.Infrastructure.registry;
+
+import com.example.BookingService.Domain.dto.CarChangeDTO;
+import com.example.BookingService.Domain.dto.CarRegistrySnapshotDTO;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarRegistrySyncTests {
+
+	// Local stand-in for the demo service's snapshot and change feed
+	static class StubSource implements CarRegistrySource {
+		final List<Long> carIds = new ArrayList<>();
+		final List<CarChangeDTO> changes = new ArrayList<>();
+		final List<Long> reads = new ArrayList<>();
+		long snapshotSequence;
+
+		@Override
+		public Mono<CarRegistrySnapshotDTO> snapshot() {
+			return Mono.just(new CarRegistrySnapshotDTO(snapshotSequence, List.copyOf(carIds)));
+		}
+
+		@Override
+		public Flux<CarChangeDTO> changesAfter(long sequence, int limit) {
+			reads.add(sequence);
+			return Flux.fromIterable(changes)
+					.filter(change -> change.getId() > sequence)
+					.take(limit);
+		}
+	}
+
+	@Test
+	void loadsSnapshotThenFollowsChangeFeed() {
+		StubSource source = new StubSource();
+		source.carIds.addAll(List.of(1L, 2L, 3L));
+		source.snapshotSequence = 10;
+		CarRegistry registry = new CarRegistry(true, 100, Duration.ofMinutes(1));
+		CarRegistrySync sync = new CarRegistrySync(registry, source, Duration.ofSeconds(5), Duration.ofHours(1));
+
+		assertTrue(registry.accepts(99L), "cars are accepted until the first snapshot");
+
+		sync.poll();
+		assertTrue(registry.contains(2L));
+		assertFalse(registry.accepts(99L));
+
+		source.changes.add(new CarChangeDTO(11L, 99L, CarChangeDTO.ADDED));
+		source.changes.add(new CarChangeDTO(12L, 2L, CarChangeDTO.REMOVED));
+		sync.poll();
+
+		assertTrue(registry.accepts(99L));
+		assertFalse(registry.accepts(2L));
+		assertEquals(12L, registry.getSequence());
+	}
+
+	@Test
+	void appliesChangesThatCommitBehindLaterIds() {
+		StubSource source = new StubSource();
+		source.carIds.add(1L);
+		source.snapshotSequence = 10;
+		CarRegistry registry = new CarRegistry(true, 100, Duration.ofMinutes(1));
+		CarRegistrySync sync = new CarRegistrySync(registry, source, Duration.ofSeconds(5), Duration.ofHours(1));
+		sync.poll();
+
+		source.changes.add(new CarChangeDTO(13L, 3L, CarChangeDTO.ADDED));
+		sync.poll();
+		assertEquals(13L, registry.getSequence());
+
+		// id 12 was taken before 13 but its transaction committed after the last poll
+		source.changes.add(0, new CarChangeDTO(12L, 2L, CarChangeDTO.ADDED));
+		sync.poll();
+		assertTrue(registry.accepts(2L), "a late commit within the grace is still applied");
+
+		source.changes.add(new CarChangeDTO(14L, 2L, CarChangeDTO.REMOVED));
+		sync.poll();
+		assertFalse(registry.accepts(2L), "re-reading the window must not apply id 12 again");
+		assertTrue(registry.accepts(3L));
+	}
+
+	@Test
+	void takesAFreshSnapshotAfterTheInterval() {
+		StubSource source = new StubSource();
+		source.carIds.add(1L);
+		source.snapshotSequence = 10;
+		CarRegistry registry = new CarRegistry(true, 5, Duration.ofMinutes(1));
+		CarRegistrySync sync = new CarRegistrySync(registry, source, Duration.ofSeconds(5), Duration.ZERO);
+		sync.poll();
+
+		// committed far behind the window: only a snapshot can pick it up
+		source.carIds.add(2L);
+		source.snapshotSequence = 20;
+		sync.poll();
+
+		assertTrue(registry.accepts(2L));
+		assertEquals(20L, registry.getSequence());
+	}
+
+	@Test
+	void aQuietPollReadsOnlyPastTheSequence() {
+		StubSource source = new StubSource();
+		source.carIds.add(1L);
+		source.snapshotSequence = 5000;
+		for (long id = 1; id <= 5000; id++) {
+			source.changes.add(new CarChangeDTO(id, 1L, CarChangeDTO.ADDED));
+		}
+		CarRegistry registry = new CarRegistry(true, 100, Duration.ofMinutes(1));
+		CarRegistrySync sync = new CarRegistrySync(registry, source, Duration.ofSeconds(5), Duration.ofHours(1));
+
+		// Right after the snapshot only the replay window below it is re-read
+		sync.poll();
+		assertEquals(List.of(4900L), source.reads);
+
+		source.reads.clear();
+		sync.poll();
+		assertEquals(List.of(5000L), source.reads, "nothing missing, so one read from the sequence");
+	}
+
+	@Test
+	void stopsWaitingForASkippedIdAfterTheGrace() throws InterruptedException {
+		StubSource source = new StubSource();
+		source.carIds.add(1L);
+		source.snapshotSequence = 10;
+		CarRegistry registry = new CarRegistry(true, 0, Duration.ofMillis(50));
+		CarRegistrySync sync = new CarRegistrySync(registry, source, Duration.ofSeconds(5), Duration.ofHours(1));
+		sync.poll();
+
+		// 11 was rolled back and never shows up
+		source.changes.add(new CarChangeDTO(12L, 2L, CarChangeDTO.ADDED));
+		sync.poll();
+		source.reads.clear();
+		sync.poll();
+		assertEquals(List.of(10L), source.reads, "re-read from just before the missing id");
+
+		Thread.sleep(100);
+		source.reads.clear();
+		sync.poll();
+		assertEquals(List.of(12L), source.reads);
+	}
+}
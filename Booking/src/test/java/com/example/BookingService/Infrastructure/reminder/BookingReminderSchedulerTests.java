@@ -0,0 +1,85 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import com.example.BookingService.Data.entity.BookingEntity;
+import com.example.BookingService.Data.repository.BookingRepository;
+import com.example.BookingService.Infrastructure.sharding.BookingShards;
+import com.example.BookingService.Infrastructure.sharding.ShardingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingReminderSchedulerTests {
+
+	private static final LocalDate DATE = LocalDate.now().plusDays(1);
+	private static final LocalTime SLOT = LocalTime.of(10, 0);
+
+	private final List<BookingReminder> delivered = new CopyOnWriteArrayList<>();
+	// Stands in for booking_reminder_claim's primary key
+	private final Set<String> claims = ConcurrentHashMap.newKeySet();
+	private final BookingRepository bookingRepository = mock(BookingRepository.class);
+
+	private BookingReminderScheduler instance() {
+		return new BookingReminderScheduler(bookingRepository,
+				new BookingShards(new ShardingProperties(), "r2dbc:postgresql://localhost/booking", "booking", "booking"),
+				reminder -> Mono.fromRunnable(() -> delivered.add(reminder)),
+				new ReminderProperties(), new SimpleMeterRegistry());
+	}
+
+	private void bookingIs(BookingEntity booking) {
+		when(bookingRepository.findById(42L)).thenReturn(Mono.just(booking));
+		when(bookingRepository.claimReminder(anyLong(), anyLong())).thenAnswer(invocation -> Mono.just(
+				claims.add(invocation.getArgument(0) + "/" + invocation.getArgument(1)) ? 1 : 0));
+	}
+
+	private static BookingEntity pending() {
+		BookingEntity booking = new BookingEntity(1L, 7L, 2L, DATE, null);
+		booking.setBooking_id(42L);
+		booking.setSlot_start(SLOT);
+		return booking;
+	}
+
+	private static BookingReminder reminder(Duration before) {
+		return new BookingReminder(42L, 7L, 2L, LocalDateTime.of(DATE, SLOT), before);
+	}
+
+	@Test
+	void sendsEachReminderOnceAcrossInstances() {
+		bookingIs(pending());
+		BookingReminderScheduler first = instance();
+		BookingReminderScheduler second = instance();
+
+		// Both instances hold the same window and fire the same timers
+		first.deliver(reminder(Duration.ofHours(24))).block();
+		second.deliver(reminder(Duration.ofHours(24))).block();
+		second.deliver(reminder(Duration.ofHours(2))).block();
+		first.deliver(reminder(Duration.ofHours(2))).block();
+
+		assertEquals(List.of(reminder(Duration.ofHours(24)), reminder(Duration.ofHours(2))), delivered);
+	}
+
+	@Test
+	void doesNotClaimAStaleReminder() {
+		BookingEntity cancelled = pending();
+		cancelled.setStatus_id(4L);
+		bookingIs(cancelled);
+
+		instance().deliver(reminder(Duration.ofHours(2))).block();
+
+		assertTrue(delivered.isEmpty());
+		assertTrue(claims.isEmpty());
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.BookingService.Infrastructure.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTests {
+
+	@Test
+	void firesEachTimerOnItsTickAcrossLevels() {
+		// 4 slots per level, 3 levels: 64 ticks of reach
+		TimingWheel<Long> wheel = new TimingWheel<>(10, 2, 3, 0);
+		long[] dues = {10, 30, 40, 170, 250, 630};
+		for (long due : dues) {
+			wheel.schedule(due, due);
+		}
+
+		List<Long> fired = new ArrayList<>();
+		for (long now = 0; now <= 640; now += 10) {
+			long at = now;
+			wheel.advanceTo(now, due -> {
+				assertEquals(due.longValue(), at);
+				fired.add(due);
+			});
+		}
+
+		assertEquals(List.of(10L, 30L, 40L, 170L, 250L, 630L), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cancelledTimersNeverFire() {
+		TimingWheel<String> wheel = new TimingWheel<>(1, 3, 2, 0);
+		TimingWheel.Timer<String> kept = wheel.schedule(5, "kept");
+		TimingWheel.Timer<String> cancelled = wheel.schedule(5, "cancelled");
+		TimingWheel.Timer<String> far = wheel.schedule(40, "far");
+		wheel.cancel(cancelled);
+		wheel.cancel(far);
+		wheel.cancel(far);
+
+		List<String> fired = new ArrayList<>();
+		wheel.advanceTo(60, fired::add);
+
+		assertEquals(List.of("kept"), fired);
+		assertFalse(kept.isScheduled());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void catchesUpAfterMissedTicksAndRejectsTimersPastTheHorizon() {
+		TimingWheel<Long> wheel = new TimingWheel<>(1, 2, 2, 100);
+		wheel.schedule(50, 50L);
+		wheel.schedule(110, 110L);
+
+		List<Long> fired = new ArrayList<>();
+		wheel.advanceTo(112, fired::add);
+
+		// an already due timer fires on the next tick
+		assertEquals(List.of(50L, 110L), fired);
+		assertThrows(IllegalArgumentException.class, () -> wheel.schedule(112 + 16, 0L));
+	}
+}
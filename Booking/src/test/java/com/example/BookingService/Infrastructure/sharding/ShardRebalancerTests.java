@@ -0,0 +1,169 @@
+package com.example.BookingService.Infrastructure.sharding;
+
+import com.example.BookingService.Domain.model.BookingStatus;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Moves a group between two databases of one Postgres container while the application keeps
+// writing to it, on the target and (an instance with a stale directory) on the source.
+@Testcontainers(disabledWithoutDocker = true)
+class ShardRebalancerTests {
+
+	@Container
+	static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+	static final String SCHEMA = """
+			CREATE TABLE IF NOT EXISTS booking (
+			    booking_id BIGSERIAL PRIMARY KEY, service_id BIGINT, car_id BIGINT, branch_id BIGINT,
+			    booking_date DATE, slot_start TIME, slot_seat INTEGER, status_id BIGINT, comments VARCHAR(500),
+			    version BIGINT NOT NULL DEFAULT 0, created_at TIMESTAMP, updated_at TIMESTAMP);
+			CREATE TABLE IF NOT EXISTS booking_daily_rollup (
+			    branch_id BIGINT NOT NULL, service_id BIGINT NOT NULL, booking_date DATE NOT NULL,
+			    status_id BIGINT NOT NULL, booking_count BIGINT NOT NULL DEFAULT 0,
+			    PRIMARY KEY (branch_id, booking_date, service_id, status_id));
+			CREATE TABLE IF NOT EXISTS booking_shard_group (automotive_id BIGINT PRIMARY KEY, shard VARCHAR(50) NOT NULL);
+			CREATE TABLE IF NOT EXISTS booking_shard_branch (branch_id BIGINT PRIMARY KEY, automotive_id BIGINT NOT NULL);
+			""";
+
+	static final long GROUP = 7L;
+	static final long BRANCH = 10L;
+	static final long PENDING = BookingStatus.PENDING.getCode();
+	static final long CANCELLED = BookingStatus.CANCELLED.getCode();
+
+	BookingShards shards;
+	ShardRoutingConnectionFactory router;
+	DatabaseClient db;
+	ShardDirectory directory;
+	ShardRebalancer rebalancer;
+
+	@BeforeEach
+	void setUp() {
+		DatabaseClient admin = DatabaseClient.create(ConnectionFactories.get(url(postgres.getDatabaseName())));
+		admin.sql("DROP DATABASE IF EXISTS shard2").then().block();
+		admin.sql("CREATE DATABASE shard2").then().block();
+
+		ShardingProperties properties = new ShardingProperties();
+		properties.setEnabled(true);
+		properties.setDefaultShard("shard1");
+		properties.setDirectoryRefresh(Duration.ofMillis(200));
+		properties.getShards().put("shard1", shard(postgres.getDatabaseName()));
+		properties.getShards().put("shard2", shard("shard2"));
+
+		shards = new BookingShards(properties, null, null, null);
+		router = new ShardingConfig().connectionFactory(shards, properties);
+		db = DatabaseClient.create(router);
+		for (String shard : List.of("shard1", "shard2")) {
+			on(shard, "DROP TABLE IF EXISTS booking, booking_daily_rollup, booking_shard_group, booking_shard_branch");
+			for (String statement : SCHEMA.split(";")) {
+				if (!statement.isBlank()) {
+					on(shard, statement);
+				}
+			}
+		}
+		// Own id range per shard, as migration.sql asks for
+		on("shard2", "SELECT setval('booking_booking_id_seq', 1000000)");
+		on("shard1", "INSERT INTO booking_shard_group VALUES (" + GROUP + ", 'shard1')");
+		on("shard1", "INSERT INTO booking_shard_branch VALUES (" + BRANCH + ", " + GROUP + ")");
+		on("shard1", "INSERT INTO booking (service_id, car_id, branch_id, booking_date, status_id, version, created_at, updated_at) " +
+				"VALUES (1, 100, " + BRANCH + ", CURRENT_DATE + 1, " + PENDING + ", 0, now(), now()), " +
+				"(1, 101, " + BRANCH + ", CURRENT_DATE + 2, " + PENDING + ", 0, now(), now())");
+
+		directory = new ShardDirectory(db, shards);
+		directory.afterPropertiesSet();
+		TransactionalOperator transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(router));
+		rebalancer = new ShardRebalancer(db, transactionalOperator, directory, shards, properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		router.destroy();
+	}
+
+	@Test
+	void writesMadeDuringTheMoveSurviveIt() throws Exception {
+		assertEquals("shard1", shards.locate(() -> branchOf(1L)).block());
+
+		CompletableFuture<Long> move = rebalancer.moveGroup(GROUP, "shard2").toFuture();
+		waitFor(() -> "shard2".equals(shards.shardOfBranch(BRANCH)));
+
+		// Both shards hold booking 1 now; the directory says the target's copy is the live one
+		assertEquals("shard2", shards.locate(() -> branchOf(1L)).block());
+
+		// Cancel on the target, as this instance would after the switch
+		on("shard2", "UPDATE booking SET status_id = " + CANCELLED + ", version = version + 1 WHERE booking_id = 1");
+		// An instance that has not refreshed its directory yet still writes to the source
+		on("shard1", "UPDATE booking SET comments = 'stale instance', version = version + 1 WHERE booking_id = 2");
+		on("shard1", "INSERT INTO booking (service_id, car_id, branch_id, booking_date, status_id, version, created_at, updated_at) " +
+				"VALUES (1, 102, " + BRANCH + ", CURRENT_DATE + 3, " + PENDING + ", 0, now(), now())");
+
+		assertEquals(2L, move.get(60, TimeUnit.SECONDS));
+
+		assertEquals(CANCELLED, longOf("shard2", "SELECT status_id FROM booking WHERE booking_id = 1"),
+				"the re-copy must not overwrite the cancel made on the target");
+		assertEquals("stale instance", stringOf("shard2", "SELECT comments FROM booking WHERE booking_id = 2"));
+		assertEquals(1L, longOf("shard2", "SELECT COUNT(*) FROM booking WHERE car_id = 102"));
+		assertEquals(3L, longOf("shard2", "SELECT COUNT(*) FROM booking WHERE branch_id = " + BRANCH));
+		assertEquals(0L, longOf("shard1", "SELECT COUNT(*) FROM booking WHERE branch_id = " + BRANCH));
+		assertEquals("shard2", shards.locate(() -> branchOf(1L)).block());
+	}
+
+	Mono<Long> branchOf(Long bookingId) {
+		return db.sql("SELECT branch_id FROM booking WHERE booking_id = :id")
+				.bind("id", bookingId)
+				.map((row, metadata) -> row.get("branch_id", Long.class))
+				.one();
+	}
+
+	void on(String shard, String sql) {
+		db.sql(sql).fetch().rowsUpdated().contextWrite(BookingShards.forShard(shard)).block();
+	}
+
+	Long longOf(String shard, String sql) {
+		return db.sql(sql).map((row, metadata) -> row.get(0, Long.class)).one()
+				.contextWrite(BookingShards.forShard(shard)).block();
+	}
+
+	String stringOf(String shard, String sql) {
+		return db.sql(sql).map((row, metadata) -> row.get(0, String.class)).one()
+				.contextWrite(BookingShards.forShard(shard)).block();
+	}
+
+	static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(20);
+		}
+	}
+
+	static ShardingProperties.Shard shard(String database) {
+		ShardingProperties.Shard shard = new ShardingProperties.Shard();
+		shard.setUrl(url(database));
+		shard.setUsername(postgres.getUsername());
+		shard.setPassword(postgres.getPassword());
+		shard.setMaxSize(4);
+		return shard;
+	}
+
+	static String url(String database) {
+		return "r2dbc:postgresql://" + postgres.getUsername() + ":" + postgres.getPassword() + "@"
+				+ postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/" + database;
+	}
+}
@@ -0,0 +1,34 @@
+package com.example.BookingService.Infrastructure.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSpanExporterTests {
+
+	@Test
+	void leavesPlainValuesAlone() {
+		String value = "GET /api/bookings/{id}";
+		assertSame(value, FileSpanExporter.escape(value));
+	}
+
+	@Test
+	void escapesQuotesAndBackslashes() {
+		assertEquals("say \\\"hi\\\" C:\\\\tmp", FileSpanExporter.escape("say \"hi\" C:\\tmp"));
+	}
+
+	@Test
+	void escapesEveryControlCharacter() {
+		assertEquals("a\\nb\\rc\\td\\be\\ff", FileSpanExporter.escape("a\nb\rc\td\be\ff"));
+		assertEquals("\\u0000\\u0001\\u001f", FileSpanExporter.escape("\u0000\u0001\u001f"));
+		for (char c = 0; c < 0x20; c++) {
+			String escaped = FileSpanExporter.escape("x" + c + "y");
+			assertTrue(escaped.chars().allMatch(ch -> ch >= 0x20), () -> "raw control character in " + escaped);
+		}
+	}
+
+	@Test
+	void keepsCharactersFromSpaceUp() {
+		assertEquals(" ~\u007f\u00e9\u2028", FileSpanExporter.escape(" ~\u007f\u00e9\u2028"));
+	}
+}
@@ -0,0 +1,14 @@
+@REM Starts the service with the Spring AOT code and CDS archive built by: mvnw -Pcds verify
+@REM The archive only matches the jar it was trained on, at the same absolute path.
+@echo off
+cd /d "%~dp0\.."
+set CDS_DIR=%CD%\target\cds
+set APP_JAR=
+for %%j in ("%CDS_DIR%\*-cds.jar") do set APP_JAR=%%~fj
+if not exist "%CDS_DIR%\app.jsa" goto missing
+if not exist "%APP_JAR%" goto missing
+java -XX:SharedArchiveFile="%CDS_DIR%\app.jsa" -Dspring.aot.enabled=true -jar "%APP_JAR%" %*
+exit /b %ERRORLEVEL%
+:missing
+echo No CDS archive in %CDS_DIR%; build it with mvnw -Pcds verify 1>&2
+exit /b 1
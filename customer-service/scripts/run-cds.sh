@@ -0,0 +1,12 @@
+#!/usr/bin/env bash
+# Starts the service with the Spring AOT code and CDS archive built by: ./mvnw -Pcds verify
+# The archive only matches the jar it was trained on, at the same absolute path.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+CDS_DIR="$PWD/target/cds"
+APP_JAR=$(ls "$CDS_DIR"/*-cds.jar 2>/dev/null | head -n1 || true)
+if [[ ! -f "$CDS_DIR/app.jsa" || ! -f "$APP_JAR" ]]; then
+  echo "No CDS archive in $CDS_DIR; build it with ./mvnw -Pcds verify" >&2
+  exit 1
+fi
+exec java -XX:SharedArchiveFile="$CDS_DIR/app.jsa" -Dspring.aot.enabled=true -jar "$APP_JAR" "$@"
@@ -0,0 +1,32 @@
+package com.ragy.customerservice.data.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.UUID;
+
+// Outcome of one NDJSON input line: the created customer's keys, or why the line was rejected
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerIngestResult {
+
+    private long line;
+    private UUID id;
+    private String customerNumber;
+    private String error;
+
+    public static CustomerIngestResult created(long line, UUID id, String customerNumber) {
+        CustomerIngestResult result = new CustomerIngestResult();
+        result.setLine(line);
+        result.setId(id);
+        result.setCustomerNumber(customerNumber);
+        return result;
+    }
+
+    public static CustomerIngestResult rejected(long line, String error) {
+        CustomerIngestResult result = new CustomerIngestResult();
+        result.setLine(line);
+        result.setError(error);
+        return result;
+    }
+}
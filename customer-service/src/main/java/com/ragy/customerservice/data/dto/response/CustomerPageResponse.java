@@ -0,0 +1,16 @@
+package com.ragy.customerservice.data.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// One page of customers with the requested fields; pass nextCursor as `after` for the next page.
+// nextCursor is null on the last page.
+@Data
+public class CustomerPageResponse {
+
+    private List<Map<String, Object>> items = new ArrayList<>();
+    private String nextCursor;
+}
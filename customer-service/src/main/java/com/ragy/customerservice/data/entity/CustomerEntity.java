@@ -15,6 +15,8 @@ public class CustomerEntity {
     private String customerNumber;
     private String name;
     private String phone;
+    // PhoneNumbers.normalize(phone); what lookups match on
+    private String phoneNormalized;
     private String email;
     private Instant createdAt;
     private Instant updatedAt;
@@ -1,19 +1,24 @@
 package com.ragy.customerservice.data.service;
 
 import com.ragy.customerservice.data.dto.request.CustomerRequest;
+import com.ragy.customerservice.data.dto.response.CustomerIngestResult;
+import com.ragy.customerservice.data.dto.response.CustomerPageResponse;
 import com.ragy.customerservice.data.dto.response.CustomerResponse;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.UUID;
 
 public interface CustomerServiceInterface {
 
     Mono<CustomerResponse> createCustomer(CustomerRequest request);
     Mono<CustomerResponse> getCustomer(UUID id);
-    Flux<CustomerResponse> getAllCustomers();
+    Mono<CustomerPageResponse> listCustomers(Integer limit, String after, String fields);
+    Flux<Map<String, Object>> streamCustomers(String after, String fields);
     Mono<CustomerResponse> updateCustomer(UUID id, CustomerRequest request);
     Mono<Void> deleteCustomer(UUID id);
     Mono<CustomerResponse> getCustomerByPhone(String phone);
+    Flux<CustomerIngestResult> ingestCustomers(Flux<CustomerRequest> requests);
 
 }
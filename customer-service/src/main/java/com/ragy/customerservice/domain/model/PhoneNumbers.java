@@ -0,0 +1,43 @@
+package com.ragy.customerservice.domain.model;
+
+// Canonical phone form (E.164 style, "+<country code><number>") so formatting variants of the
+// same number - spaces, dashes, brackets, a 00 or trunk 0 prefix - compare equal.
+public final class PhoneNumbers {
+
+    private static final int MIN_DIGITS = 7;
+    private static final int MAX_DIGITS = 15;
+
+    private PhoneNumbers() {}
+
+    // Returns null when the input cannot be a phone number
+    public static String normalize(String raw, String defaultCountryCode) {
+        if (raw == null) {
+            return null;
+        }
+        String trimmed = raw.strip();
+        boolean international = trimmed.startsWith("+");
+        StringBuilder digits = new StringBuilder(trimmed.length());
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            } else if (c != ' ' && c != '-' && c != '.' && c != '(' && c != ')' && !(c == '+' && i == 0)) {
+                return null;
+            }
+        }
+        String number = digits.toString();
+        if (!international) {
+            if (number.startsWith("00")) {
+                number = number.substring(2);
+            } else if (number.startsWith("0")) {
+                number = defaultCountryCode + number.substring(1);
+            } else if (!number.startsWith(defaultCountryCode)) {
+                number = defaultCountryCode + number;
+            }
+        }
+        if (number.length() < MIN_DIGITS || number.length() > MAX_DIGITS) {
+            return null;
+        }
+        return "+" + number;
+    }
+}
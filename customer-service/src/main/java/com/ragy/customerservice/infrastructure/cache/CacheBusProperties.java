@@ -0,0 +1,19 @@
+package com.ragy.customerservice.infrastructure.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "customer.cache-bus")
+public class CacheBusProperties {
+
+    private boolean enabled = true;
+    // LISTEN/NOTIFY channel; a plain lower-case identifier
+    private String channel = "customer_cache";
+    // Keys published within this window go out together, duplicates once
+    private Duration coalesceWindow = Duration.ofMillis(50);
+    private Duration reconnectMinBackoff = Duration.ofSeconds(1);
+    private Duration reconnectMaxBackoff = Duration.ofSeconds(30);
+}
@@ -0,0 +1,106 @@
+package com.ragy.customerservice.infrastructure.cache;
+
+import com.ragy.customerservice.data.dto.response.CustomerResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU of phone lookups keyed by the normalized number. Unknown numbers are cached as
+// negative entries with a shorter TTL, so repeated misses stay off Postgres too. Writes
+// invalidate the numbers they touch here and, through the CacheInvalidationBus, on the other
+// instances; the TTLs bound staleness only while the bus is disconnected.
+// A lookup that misses marks the number as loading before it reads the database and may only
+// cache its result while that mark is still there. An invalidation removes the mark, so a read
+// that raced a write can no longer cache the value from before the write.
+@Component
+public class PhoneLookupCache {
+
+    public static final String NAMESPACE = "phone";
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<String, Entry> entries;
+    private long loads;
+
+    // customer is null for a number known not to exist
+    public record Hit(CustomerResponse customer) {
+    }
+
+    // load is non-zero while the number is being read from the database
+    private record Entry(CustomerResponse customer, long expiresAtNanos, long load) {
+    }
+
+    public PhoneLookupCache(
+            MeterRegistry meterRegistry,
+            CacheInvalidationBus invalidationBus,
+            @Value("${customer.phone-cache.max-entries:100000}") int maxEntries,
+            @Value("${customer.phone-cache.ttl:10m}") Duration ttl,
+            @Value("${customer.phone-cache.negative-ttl:1m}") Duration negativeTtl) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PhoneLookupCache.this.maxEntries;
+            }
+        };
+        meterRegistry.gauge("customer.phone.cache.size", this, PhoneLookupCache::size);
+        invalidationBus.register(NAMESPACE, this::invalidate, this::clear);
+    }
+
+    // null when the number is not cached
+    public synchronized Hit get(String phone) {
+        Entry entry = entries.get(phone);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            entries.remove(phone);
+            return null;
+        }
+        return entry.load() == 0 ? new Hit(entry.customer()) : null;
+    }
+
+    // Call before reading the number from the database; pass the result to put or putUnknown
+    public synchronized long beginLoad(String phone) {
+        long load = ++loads;
+        entries.put(phone, new Entry(null, System.nanoTime() + negativeTtlNanos, load));
+        return load;
+    }
+
+    public synchronized void put(String phone, long load, CustomerResponse customer) {
+        complete(phone, load, new Entry(customer, System.nanoTime() + ttlNanos, 0));
+    }
+
+    public synchronized void putUnknown(String phone, long load) {
+        complete(phone, load, new Entry(null, System.nanoTime() + negativeTtlNanos, 0));
+    }
+
+    // Only the latest load of a number that was not invalidated since it began is kept
+    private void complete(String phone, long load, Entry entry) {
+        Entry current = entries.get(phone);
+        if (current != null && current.load() == load) {
+            entries.put(phone, entry);
+        }
+    }
+
+    public synchronized void invalidate(String phone) {
+        if (phone != null) {
+            entries.remove(phone);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -1,16 +1,20 @@
 package com.ragy.customerservice.infrastructure.controller;
 
 import com.ragy.customerservice.data.dto.request.CustomerRequest;
+import com.ragy.customerservice.data.dto.response.CustomerIngestResult;
+import com.ragy.customerservice.data.dto.response.CustomerPageResponse;
 import com.ragy.customerservice.data.dto.response.CustomerResponse;
 import com.ragy.customerservice.data.service.CustomerServiceInterface;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.Map;
 import java.util.UUID;
 
 @RequiredArgsConstructor
@@ -26,6 +30,12 @@ public class CustomerController {
                 .map(r -> ResponseEntity.created(URI.create("/api/customers/" + r.getId())).body(r));
     }
 
+    // Onboarding: one customer per NDJSON line in, one result per line out
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerIngestResult> ingestCustomers(@RequestBody Flux<CustomerRequest> requests) {
+        return service.ingestCustomers(requests);
+    }
+
     @GetMapping("/{id}")
     public Mono<CustomerResponse> getCustomer(@PathVariable UUID id) {
         return service.getCustomer(id);
@@ -37,9 +47,23 @@ public class CustomerController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    // Paged: ?limit=100&after=<nextCursor>&fields=id,phone
     @GetMapping
-    public Flux<CustomerResponse> getAllCustomers() {
-        return service.getAllCustomers();
+    public Mono<CustomerPageResponse> listCustomers(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields
+    ) {
+        return service.listCustomers(limit, after, fields);
+    }
+
+    // Accept: application/x-ndjson streams every customer (after the cursor, if given)
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Map<String, Object>> streamCustomers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields
+    ) {
+        return service.streamCustomers(after, fields);
     }
 
     @PutMapping("/{id}")
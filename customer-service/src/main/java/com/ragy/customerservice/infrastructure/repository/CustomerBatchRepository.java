@@ -0,0 +1,61 @@
+package com.ragy.customerservice.infrastructure.repository;
+
+import com.ragy.customerservice.data.entity.CustomerEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.UUID;
+
+// Multi-row inserts for the bulk ingest: one statement per batch, generated columns returned
+// in the same round trip. Postgres does not promise RETURNING rows in VALUES order, so each row
+// carries its phone_normalized (unique) for the caller to match it to its input.
+@Repository
+public class CustomerBatchRepository {
+
+    private static final int COLUMNS = 4;
+
+    private final DatabaseClient databaseClient;
+
+    public CustomerBatchRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<CustomerEntity> insertAll(List<CustomerEntity> customers) {
+        if (customers.isEmpty()) {
+            return Flux.empty();
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(insertSql(customers.size()));
+        for (int i = 0; i < customers.size(); i++) {
+            CustomerEntity customer = customers.get(i);
+            int base = i * COLUMNS;
+            spec = spec.bind(base, customer.getName())
+                    .bind(base + 1, customer.getPhone())
+                    .bind(base + 2, customer.getPhoneNormalized());
+            spec = customer.getEmail() != null
+                    ? spec.bind(base + 3, customer.getEmail())
+                    : spec.bindNull(base + 3, String.class);
+        }
+        return spec.map((row, metadata) -> {
+                    CustomerEntity entity = new CustomerEntity();
+                    entity.setId(row.get("id", UUID.class));
+                    entity.setCustomerNumber(row.get("customer_number", String.class));
+                    entity.setPhoneNormalized(row.get("phone_normalized", String.class));
+                    return entity;
+                })
+                .all();
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO customers (name, phone, phone_normalized, email) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            int base = i * COLUMNS;
+            sql.append(i == 0 ? "(" : ", (")
+                    .append('$').append(base + 1).append(", $").append(base + 2)
+                    .append(", $").append(base + 3).append(", $").append(base + 4)
+                    .append(')');
+        }
+        return sql.append(" RETURNING id, customer_number, phone_normalized").toString();
+    }
+}
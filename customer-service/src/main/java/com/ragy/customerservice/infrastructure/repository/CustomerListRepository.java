@@ -0,0 +1,70 @@
+package com.ragy.customerservice.infrastructure.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Keyset pages over idx_customers_created_id, selecting only the requested columns. The key
+// columns are always read so the caller can continue after the last row.
+@Repository
+public class CustomerListRepository {
+
+    // API field -> column; the only names ever put into the SQL
+    public static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "customerNumber", "customer_number",
+            "name", "name",
+            "phone", "phone",
+            "email", "email",
+            "createdAt", "created_at",
+            "updatedAt", "updated_at");
+
+    public record Row(Instant createdAt, UUID id, Map<String, Object> fields) {
+    }
+
+    private final DatabaseClient databaseClient;
+
+    public CustomerListRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // fields are keys of COLUMNS; afterCreatedAt/afterId are null for the first page
+    public Flux<Row> page(List<String> fields, Instant afterCreatedAt, UUID afterId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT created_at, id");
+        for (String field : fields) {
+            sql.append(", ").append(COLUMNS.get(field)).append(" AS ").append('"').append(field).append('"');
+        }
+        sql.append(" FROM customers");
+        if (afterId != null) {
+            sql.append(" WHERE (created_at, id) > ($1, $2)");
+        }
+        sql.append(" ORDER BY created_at, id LIMIT ").append(limit);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (afterId != null) {
+            spec = spec.bind(0, afterCreatedAt).bind(1, afterId);
+        }
+        return spec.map((row, metadata) -> {
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    for (String field : fields) {
+                        values.put(field, row.get(field, type(field)));
+                    }
+                    return new Row(row.get("created_at", Instant.class), row.get("id", UUID.class), values);
+                })
+                .all();
+    }
+
+    private static Class<?> type(String field) {
+        return switch (field) {
+            case "id" -> UUID.class;
+            case "createdAt", "updatedAt" -> Instant.class;
+            default -> String.class;
+        };
+    }
+}
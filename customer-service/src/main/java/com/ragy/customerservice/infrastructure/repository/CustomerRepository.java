@@ -1,13 +1,31 @@
 package com.ragy.customerservice.infrastructure.repository;
 
 import com.ragy.customerservice.data.entity.CustomerEntity;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
 import java.util.UUID;
 
 public interface CustomerRepository extends ReactiveCrudRepository<CustomerEntity, UUID> {
-    Mono<CustomerEntity> findByPhone(String phone);
+    // uq_customers_phone_normalized. The index is partial, so its predicate is repeated: a cached
+    // generic plan cannot prove a bare parameter is never '' and would have to re-plan every call
+    @Query("SELECT * FROM customers WHERE phone_normalized = :phoneNormalized AND phone_normalized <> ''")
+    Mono<CustomerEntity> findByPhoneNormalized(String phoneNormalized);
+
+    // One round trip: the generated id, customer number and timestamps come back with the insert
+    @Query("INSERT INTO customers (name, phone, phone_normalized, email) " +
+            "VALUES (:name, :phone, :phoneNormalized, :email) RETURNING *")
+    Mono<CustomerEntity> insert(String name, String phone, String phoneNormalized, String email);
+
+    // Returns the deleted customer's number so its cached lookup can be dropped
+    @Query("DELETE FROM customers WHERE id = :id RETURNING COALESCE(phone_normalized, '')")
+    Mono<String> deleteReturningPhone(UUID id);
+
+    // Rows written before phone_normalized existed
+    @Query("SELECT * FROM customers WHERE phone_normalized IS NULL LIMIT :limit")
+    Flux<CustomerEntity> findWithoutNormalizedPhone(int limit);
 
 }
\ No newline at end of file
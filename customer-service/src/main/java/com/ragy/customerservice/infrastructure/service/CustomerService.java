@@ -1,44 +1,140 @@
 package com.ragy.customerservice.infrastructure.service;
 
 import com.ragy.customerservice.data.dto.request.CustomerRequest;
+import com.ragy.customerservice.data.dto.response.CustomerIngestResult;
+import com.ragy.customerservice.data.dto.response.CustomerPageResponse;
 import com.ragy.customerservice.data.dto.response.CustomerResponse;
 import com.ragy.customerservice.data.entity.CustomerEntity;
-import com.ragy.customerservice.domain.model.Customer;
 import com.ragy.customerservice.data.mapper.CustomerMapper;
 import com.ragy.customerservice.data.service.CustomerServiceInterface;
+import com.ragy.customerservice.domain.model.PhoneNumbers;
+import com.ragy.customerservice.infrastructure.cache.CacheInvalidationBus;
+import com.ragy.customerservice.infrastructure.cache.PhoneLookupCache;
+import com.ragy.customerservice.infrastructure.repository.CustomerBatchRepository;
+import com.ragy.customerservice.infrastructure.repository.CustomerListRepository;
 import com.ragy.customerservice.infrastructure.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class CustomerService implements CustomerServiceInterface {
 
+    private static final List<String> ALL_FIELDS =
+            List.of("id", "customerNumber", "name", "phone", "email", "createdAt", "updatedAt");
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    // Rows per query while streaming; bounds the heap a stream holds however large the table is
+    private static final int STREAM_CHUNK = 500;
+
     private final CustomerRepository repository;
+    private final CustomerBatchRepository batchRepository;
+    private final CustomerListRepository listRepository;
+    private final Validator validator;
+    private final int ingestBatchSize;
+    private final Counter insertedCounter;
+    private final Counter rejectedCounter;
+    private final PhoneLookupCache phoneCache;
+    private final CacheInvalidationBus invalidationBus;
+    private final String defaultCountryCode;
+    private final Timer phoneHitTimer;
+    private final Timer phoneNegativeHitTimer;
+    private final Timer phoneMissTimer;
 
-    public CustomerService(CustomerRepository repository) {
+    public CustomerService(
+            CustomerRepository repository,
+            CustomerBatchRepository batchRepository,
+            CustomerListRepository listRepository,
+            Validator validator,
+            PhoneLookupCache phoneCache,
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            @Value("${customer.ingest.batch-size:500}") int ingestBatchSize,
+            @Value("${customer.phone.default-country-code:20}") String defaultCountryCode) {
         this.repository = repository;
+        this.batchRepository = batchRepository;
+        this.listRepository = listRepository;
+        this.validator = validator;
+        this.ingestBatchSize = ingestBatchSize;
+        this.insertedCounter = meterRegistry.counter("customer.ingest.rows", "outcome", "inserted");
+        this.rejectedCounter = meterRegistry.counter("customer.ingest.rows", "outcome", "rejected");
+        this.phoneCache = phoneCache;
+        this.invalidationBus = invalidationBus;
+        this.defaultCountryCode = defaultCountryCode;
+        // Hit ratio is the hit + negative-hit count over all three; the histograms give the latency split
+        this.phoneHitTimer = phoneLookupTimer(meterRegistry, "hit");
+        this.phoneNegativeHitTimer = phoneLookupTimer(meterRegistry, "negative-hit");
+        this.phoneMissTimer = phoneLookupTimer(meterRegistry, "miss");
+    }
+
+    private static Timer phoneLookupTimer(MeterRegistry meterRegistry, String cache) {
+        return Timer.builder("customer.phone.lookup")
+                .tag("cache", cache)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     @Override
     public Mono<CustomerResponse> getCustomerByPhone(String phone) {
-        return repository.findByPhone(phone)
+        String normalized = PhoneNumbers.normalize(phone, defaultCountryCode);
+        if (normalized == null) {
+            return Mono.empty();
+        }
+        long start = System.nanoTime();
+        PhoneLookupCache.Hit hit = phoneCache.get(normalized);
+        if (hit != null) {
+            (hit.customer() != null ? phoneHitTimer : phoneNegativeHitTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Mono.justOrEmpty(hit.customer());
+        }
+        long load = phoneCache.beginLoad(normalized);
+        return repository.findByPhoneNormalized(normalized)
                 .map(CustomerMapper::toDomain)
-                .map(CustomerMapper::toResponse);
+                .map(CustomerMapper::toResponse)
+                .doOnNext(customer -> phoneCache.put(normalized, load, customer))
+                .switchIfEmpty(Mono.fromRunnable(() -> phoneCache.putUnknown(normalized, load)))
+                .doOnTerminate(() -> phoneMissTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
     }
 
     @Override
     public Mono<CustomerResponse> createCustomer(CustomerRequest request) {
-        CustomerEntity entity = new CustomerEntity();
-        entity.setName(request.getName());
-        entity.setPhone(request.getPhone());
-        entity.setEmail(request.getEmail());
-
-        return repository.save(entity)
-                .flatMap(saved -> repository.findById(saved.getId()))
+        String normalized = PhoneNumbers.normalize(request.getPhone(), defaultCountryCode);
+        if (normalized == null) {
+            return Mono.error(invalidPhone());
+        }
+        return repository.insert(request.getName(), request.getPhone(), normalized, request.getEmail())
+                .onErrorMap(DuplicateKeyException.class, e -> phoneTaken())
+                // drops a negative entry cached while the number was unknown
+                .doOnNext(saved -> invalidatePhone(normalized))
                 .map(CustomerMapper::toDomain)
                 .map(CustomerMapper::toResponse);
     }
@@ -50,22 +146,114 @@ public class CustomerService implements CustomerServiceInterface {
                 .map(CustomerMapper::toResponse);
     }
 
+    // Keyset pagination on (created_at, id): a page costs the same however deep it is
     @Override
-    public Flux<CustomerResponse> getAllCustomers() {
-        return repository.findAll()
-                .map(CustomerMapper::toDomain)
-                .map(CustomerMapper::toResponse);
+    public Mono<CustomerPageResponse> listCustomers(Integer limit, String after, String fields) {
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.error(new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE + "."));
+        }
+        return Mono.fromCallable(() -> decodeCursor(after, parseFields(fields)))
+                .flatMap(cursor -> listRepository.page(cursor.fields(), cursor.createdAt(), cursor.id(), pageSize + 1)
+                        .collectList()
+                        .map(rows -> {
+                            CustomerPageResponse page = new CustomerPageResponse();
+                            List<CustomerListRepository.Row> items = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+                            items.forEach(row -> page.getItems().add(row.fields()));
+                            if (rows.size() > pageSize) {
+                                CustomerListRepository.Row last = items.get(items.size() - 1);
+                                page.setNextCursor(encodeCursor(last.createdAt(), last.id()));
+                            }
+                            return page;
+                        }));
+    }
+
+    // Whole table as a stream, read one keyset chunk at a time as the client consumes it
+    @Override
+    public Flux<Map<String, Object>> streamCustomers(String after, String fields) {
+        return Mono.fromCallable(() -> decodeCursor(after, parseFields(fields)))
+                .flatMapMany(cursor -> streamFrom(cursor.fields(), cursor.createdAt(), cursor.id()));
+    }
+
+    private Flux<Map<String, Object>> streamFrom(List<String> fields, Instant createdAt, UUID id) {
+        return listRepository.page(fields, createdAt, id, STREAM_CHUNK)
+                .collectList()
+                .flatMapMany(rows -> {
+                    Flux<Map<String, Object>> chunk = Flux.fromIterable(rows).map(CustomerListRepository.Row::fields);
+                    if (rows.size() < STREAM_CHUNK) {
+                        return chunk;
+                    }
+                    CustomerListRepository.Row last = rows.get(rows.size() - 1);
+                    return chunk.concatWith(Flux.defer(() -> streamFrom(fields, last.createdAt(), last.id())));
+                });
+    }
+
+    private List<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL_FIELDS;
+        }
+        List<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toList();
+        for (String field : requested) {
+            if (!CustomerListRepository.COLUMNS.containsKey(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field '" + field + "'. Allowed: " + String.join(", ", ALL_FIELDS));
+            }
+        }
+        return requested;
+    }
+
+    private static String encodeCursor(Instant createdAt, UUID id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "/" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decodeCursor(String after, List<String> fields) {
+        if (after == null || after.isBlank()) {
+            return new Cursor(null, null, fields);
+        }
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8).split("/", 2);
+            if (key.length == 2) {
+                return new Cursor(Instant.parse(key[0]), UUID.fromString(key[1]), fields);
+            }
+        } catch (RuntimeException e) {
+            // reported below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+    }
+
+    private record Cursor(Instant createdAt, UUID id, List<String> fields) {
     }
 
     @Override
     public Mono<CustomerResponse> updateCustomer(UUID id, CustomerRequest request) {
+        String normalized = request.getPhone() != null
+                ? PhoneNumbers.normalize(request.getPhone(), defaultCountryCode)
+                : null;
+        if (request.getPhone() != null && normalized == null) {
+            return Mono.error(invalidPhone());
+        }
         return repository.findById(id)
                 .flatMap(entity -> {
+                    String previous = entity.getPhoneNormalized();
                     if (request.getName() != null) entity.setName(request.getName());
-                    if (request.getPhone() != null) entity.setPhone(request.getPhone());
+                    if (request.getPhone() != null) {
+                        entity.setPhone(request.getPhone());
+                        entity.setPhoneNormalized(normalized);
+                    }
                     if (request.getEmail() != null) entity.setEmail(request.getEmail());
                     entity.setUpdatedAt(Instant.now());
-                    return repository.save(entity);
+                    return repository.save(entity)
+                            .onErrorMap(DuplicateKeyException.class, e -> phoneTaken())
+                            .doOnNext(saved -> {
+                                invalidatePhone(previous);
+                                invalidatePhone(saved.getPhoneNormalized());
+                            });
                 })
                 .map(CustomerMapper::toDomain)
                 .map(CustomerMapper::toResponse);
@@ -73,6 +261,124 @@ public class CustomerService implements CustomerServiceInterface {
 
     @Override
     public Mono<Void> deleteCustomer(UUID id) {
-        return repository.deleteById(id);
+        return repository.deleteReturningPhone(id)
+                .doOnNext(this::invalidatePhone)
+                .then();
+    }
+
+    // Drops the number here at once and on the other instances after the bus's coalesce window
+    private void invalidatePhone(String normalized) {
+        phoneCache.invalidate(normalized);
+        invalidationBus.publish(PhoneLookupCache.NAMESPACE, normalized);
+    }
+
+    private static ResponseStatusException invalidPhone() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "phone is not a valid phone number.");
+    }
+
+    // uq_customers_phone_normalized: one customer per number, however it is formatted
+    private static ResponseStatusException phoneTaken() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Another customer already has this phone number.");
+    }
+
+    // Streams NDJSON records into multi-row inserts of ingestBatchSize rows, one result per line.
+    // Invalid lines are reported and skipped; a batch the database rejects is retried row by row
+    // so only the offending lines fail.
+    @Override
+    public Flux<CustomerIngestResult> ingestCustomers(Flux<CustomerRequest> requests) {
+        long start = System.nanoTime();
+        AtomicLong lines = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        return requests
+                .index((index, request) -> Tuples.of(index + 1, request))
+                .doOnNext(line -> lines.incrementAndGet())
+                .buffer(ingestBatchSize)
+                .concatMap(this::ingestBatch)
+                .doOnNext(result -> {
+                    if (result.getError() == null) {
+                        inserted.incrementAndGet();
+                    }
+                })
+                .onErrorResume(DecodingException.class, e -> Flux.just(CustomerIngestResult.rejected(
+                        lines.get() + 1, "Malformed input; ingest stopped at this line.")))
+                .doFinally(signal -> {
+                    double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-3);
+                    log.info("Customer ingest: {} lines, {} inserted in {} s ({} rows/s)",
+                            lines.get(), inserted.get(), String.format("%.1f", seconds),
+                            Math.round(inserted.get() / seconds));
+                });
+    }
+
+    private Flux<CustomerIngestResult> ingestBatch(List<Tuple2<Long, CustomerRequest>> batch) {
+        List<CustomerIngestResult> rejected = new ArrayList<>();
+        List<Tuple2<Long, CustomerRequest>> valid = new ArrayList<>(batch.size());
+        for (Tuple2<Long, CustomerRequest> line : batch) {
+            String error = validate(line.getT2());
+            if (error != null) {
+                rejected.add(CustomerIngestResult.rejected(line.getT1(), error));
+            } else {
+                valid.add(line);
+            }
+        }
+        rejectedCounter.increment(rejected.size());
+        return Flux.fromIterable(rejected).concatWith(insert(valid));
+    }
+
+    private Flux<CustomerIngestResult> insert(List<Tuple2<Long, CustomerRequest>> lines) {
+        if (lines.isEmpty()) {
+            return Flux.empty();
+        }
+        List<CustomerEntity> customers = lines.stream().map(line -> {
+            CustomerEntity entity = new CustomerEntity();
+            entity.setName(line.getT2().getName());
+            entity.setPhone(line.getT2().getPhone());
+            entity.setPhoneNormalized(PhoneNumbers.normalize(line.getT2().getPhone(), defaultCountryCode));
+            entity.setEmail(line.getT2().getEmail());
+            return entity;
+        }).toList();
+        return batchRepository.insertAll(customers)
+                .collectList()
+                .flatMapMany(rows -> {
+                    insertedCounter.increment(rows.size());
+                    // RETURNING order is not guaranteed; phone_normalized is unique, so it identifies
+                    // the line each row came from
+                    Map<String, CustomerEntity> rowsByPhone = new HashMap<>(rows.size() * 2);
+                    for (CustomerEntity row : rows) {
+                        invalidatePhone(row.getPhoneNormalized());
+                        rowsByPhone.put(row.getPhoneNormalized(), row);
+                    }
+                    List<CustomerIngestResult> results = new ArrayList<>(lines.size());
+                    for (int i = 0; i < lines.size(); i++) {
+                        CustomerEntity row = rowsByPhone.get(customers.get(i).getPhoneNormalized());
+                        results.add(CustomerIngestResult.created(lines.get(i).getT1(), row.getId(), row.getCustomerNumber()));
+                    }
+                    return Flux.fromIterable(results);
+                })
+                .onErrorResume(e -> {
+                    if (lines.size() > 1) {
+                        return Flux.fromIterable(lines).concatMap(line -> insert(List.of(line)));
+                    }
+                    rejectedCounter.increment();
+                    return Flux.just(CustomerIngestResult.rejected(lines.get(0).getT1(),
+                            e instanceof DataIntegrityViolationException
+                                    ? "Conflicts with an existing customer."
+                                    : "Insert failed."));
+                });
+    }
+
+    private String validate(CustomerRequest request) {
+        if (request == null) {
+            return "Empty record.";
+        }
+        Set<ConstraintViolation<CustomerRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return PhoneNumbers.normalize(request.getPhone(), defaultCountryCode) == null
+                    ? "phone is not a valid phone number"
+                    : null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 }
\ No newline at end of file
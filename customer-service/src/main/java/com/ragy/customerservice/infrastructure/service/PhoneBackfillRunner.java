@@ -0,0 +1,70 @@
+package com.ragy.customerservice.infrastructure.service;
+
+import com.ragy.customerservice.domain.model.PhoneNumbers;
+import com.ragy.customerservice.infrastructure.repository.CustomerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Fills phone_normalized for customers written before the column existed, in batches, before
+// the service reports ready. Numbers that cannot be normalized get '' and are never matched; so
+// does a number another customer already holds, since phone_normalized is unique.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PhoneBackfillRunner implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final CustomerRepository customerRepository;
+    private final String defaultCountryCode;
+    private final Duration timeout;
+
+    public PhoneBackfillRunner(
+            CustomerRepository customerRepository,
+            @Value("${customer.phone.default-country-code:20}") String defaultCountryCode,
+            @Value("${customer.phone.backfill-timeout:10m}") Duration timeout) {
+        this.customerRepository = customerRepository;
+        this.defaultCountryCode = defaultCountryCode;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Long filled = backfill().block(timeout);
+            if (filled != null && filled > 0) {
+                log.info("Normalized {} customer phone numbers", filled);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Phone number backfill incomplete: {}", e.toString());
+        }
+    }
+
+    private Mono<Long> backfill() {
+        return customerRepository.findWithoutNormalizedPhone(BATCH_SIZE)
+                .concatMap(customer -> {
+                    String normalized = PhoneNumbers.normalize(customer.getPhone(), defaultCountryCode);
+                    customer.setPhoneNormalized(normalized != null ? normalized : "");
+                    return customerRepository.save(customer)
+                            .onErrorResume(DuplicateKeyException.class, e -> {
+                                log.warn("Customer {} shares phone number {} with another customer; it will not be found by phone",
+                                        customer.getId(), normalized);
+                                customer.setPhoneNormalized("");
+                                return customerRepository.save(customer);
+                            });
+                })
+                .count()
+                .flatMap(count -> count < BATCH_SIZE
+                        ? Mono.just(count)
+                        : backfill().map(rest -> rest + count));
+    }
+}
@@ -0,0 +1,22 @@
+-- Migration script for the customer-service tables
+-- Run this in pgAdmin or psql to update your database
+
+-- Keyset order of the customer listing (GET /api/customers)
+CREATE INDEX IF NOT EXISTS idx_customers_created_id
+    ON customers(created_at, id);
+
+-- Canonical phone number (PhoneNumbers.normalize) for lookups; PhoneBackfillRunner fills old rows
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS phone_normalized VARCHAR(16);
+
+-- One customer per phone number, however it was formatted. Where several customers already
+-- share a number the oldest keeps it; the others get '' (never matched) and need a manual fix.
+-- '' also marks numbers that could not be normalized, so it is left out of the index.
+UPDATE customers c SET phone_normalized = ''
+WHERE c.phone_normalized <> ''
+  AND EXISTS (SELECT 1 FROM customers o
+              WHERE o.phone_normalized = c.phone_normalized
+                AND (o.created_at, o.id) < (c.created_at, c.id));
+CREATE UNIQUE INDEX IF NOT EXISTS uq_customers_phone_normalized
+    ON customers(phone_normalized)
+    WHERE phone_normalized <> '';
+DROP INDEX IF EXISTS idx_customers_phone_normalized;
@@ -0,0 +1,38 @@
+package com.ragy.customerservice.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneNumbersTests {
+
+	@Test
+	void formattingVariantsOfOneNumberAreEqual() {
+		for (String raw : new String[]{
+				"+201001234567", "+20 100 123 4567", "00201001234567", "01001234567",
+				"(010) 0123-4567", " 010.0123.4567 ", "1001234567", "201001234567"}) {
+			assertEquals("+201001234567", PhoneNumbers.normalize(raw, "20"), raw);
+		}
+	}
+
+	@Test
+	void digitsStartingWithTheDefaultCountryCodeAreTakenAsInternational() {
+		// Without + or 00, a leading country code is not added twice
+		assertEquals("+12025550100", PhoneNumbers.normalize("12025550100", "1"));
+		assertEquals("+12025550100", PhoneNumbers.normalize("2025550100", "1"));
+		// ... so a national number that happens to start with those digits is read the same way
+		assertEquals("+201234567", PhoneNumbers.normalize("201234567", "20"));
+		// A trunk 0 always means a national number
+		assertEquals("+2020123456", PhoneNumbers.normalize("020123456", "20"));
+	}
+
+	@Test
+	void rejectsWhatCannotBeAPhoneNumber() {
+		assertNull(PhoneNumbers.normalize(null, "20"));
+		assertNull(PhoneNumbers.normalize("call me", "20"));
+		assertNull(PhoneNumbers.normalize("010-1234-567x", "20"));
+		assertNull(PhoneNumbers.normalize("+20+1001234567", "20"));
+		assertNull(PhoneNumbers.normalize("+20123", "20"), "fewer than 7 digits");
+		assertNull(PhoneNumbers.normalize("+2010012345678901", "20"), "more than 15 digits");
+	}
+}
@@ -0,0 +1,84 @@
+package com.ragy.customerservice.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two instances' buses on one Postgres: what one publishes reaches the other over LISTEN/NOTIFY.
+@Testcontainers(disabledWithoutDocker = true)
+class CacheInvalidationBusPostgresTests {
+
+	@Container
+	static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		buses.forEach(CacheInvalidationBus::stop);
+	}
+
+	@Test
+	void deliversInvalidationsToTheOtherInstancesOnly() throws InterruptedException {
+		List<String> invalidatedOnA = new CopyOnWriteArrayList<>();
+		List<String> invalidatedOnB = new CopyOnWriteArrayList<>();
+		AtomicInteger clearsOnA = new AtomicInteger();
+		CacheInvalidationBus a = bus(invalidatedOnA, clearsOnA);
+		CacheInvalidationBus b = bus(invalidatedOnB, new AtomicInteger());
+		waitFor(() -> a.isConnected() && b.isConnected());
+		assertEquals(1, clearsOnA.get(), "connecting clears the local caches once");
+
+		a.publish("phone", "+201001234567");
+		a.publish("phone", "+201001234567");
+		waitFor(() -> invalidatedOnB.contains("+201001234567"));
+
+		// Notifications arrive in commit order, so once A has B's key it has also seen its own
+		b.publish("phone", "+201007654321");
+		waitFor(() -> invalidatedOnA.contains("+201007654321"));
+
+		assertEquals(List.of("+201007654321"), invalidatedOnA);
+		assertEquals(List.of("+201001234567"), invalidatedOnB);
+	}
+
+	CacheInvalidationBus bus(List<String> invalidated, AtomicInteger clears) {
+		String address = postgres.getHost() + ":" + postgres.getMappedPort(5432) + "/" + postgres.getDatabaseName();
+		R2dbcProperties r2dbc = new R2dbcProperties();
+		r2dbc.setUrl("r2dbc:postgresql://" + address);
+		r2dbc.setUsername(postgres.getUsername());
+		r2dbc.setPassword(postgres.getPassword());
+		DatabaseClient databaseClient = DatabaseClient.create(ConnectionFactories.get(
+				"r2dbc:postgresql://" + postgres.getUsername() + ":" + postgres.getPassword() + "@" + address));
+		CacheBusProperties properties = new CacheBusProperties();
+		properties.setCoalesceWindow(Duration.ofMillis(200));
+		properties.setReconnectMinBackoff(Duration.ofMillis(100));
+		CacheInvalidationBus bus = new CacheInvalidationBus(properties, r2dbc, databaseClient, new SimpleMeterRegistry());
+		bus.register("phone", invalidated::add, clears::incrementAndGet);
+		bus.start();
+		buses.add(bus);
+		return bus;
+	}
+
+	static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.nanoTime() < deadline, "timed out");
+			Thread.sleep(20);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.ragy.customerservice.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.postgresql.api.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationBusTests {
+
+	private final CacheInvalidationBus bus = new CacheInvalidationBus(
+			new CacheBusProperties(), r2dbc("r2dbc:postgresql://localhost/customers"), null, new SimpleMeterRegistry());
+
+	static R2dbcProperties r2dbc(String url) {
+		R2dbcProperties properties = new R2dbcProperties();
+		properties.setUrl(url);
+		properties.setUsername("customer");
+		properties.setPassword("secret");
+		return properties;
+	}
+
+	static Notification notification(String payload) {
+		return new Notification() {
+			@Override
+			public String getName() {
+				return "customer_cache";
+			}
+
+			@Override
+			public int getProcessId() {
+				return 1;
+			}
+
+			@Override
+			public String getParameter() {
+				return payload;
+			}
+		};
+	}
+
+	@Test
+	void coalescesKeysPublishedBetweenFlushes() {
+		bus.publish("phone", "+201001234567");
+		bus.publish("phone", "+201001234567");
+		bus.publish("customer", "42");
+		bus.publish("customer", null);
+
+		assertEquals(Set.of("phone:+201001234567", "customer:42"), new HashSet<>(bus.drainPending()));
+		assertEquals(List.of(), bus.drainPending());
+	}
+
+	@Test
+	void splitsKeysIntoPayloadsThatFitNotify() {
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			keys.add("phone:+2010" + (10_000_000 + i));
+		}
+
+		List<String> payloads = bus.payloads(keys);
+
+		assertTrue(payloads.size() > 1);
+		List<String> sent = new ArrayList<>();
+		for (String payload : payloads) {
+			assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= 7500, "pg_notify rejects payloads from 8000 bytes");
+			assertTrue(payload.startsWith(bus.getInstanceId() + "|"));
+			sent.addAll(List.of(payload.substring(payload.indexOf('|') + 1).split("\n")));
+		}
+		assertEquals(keys, sent);
+	}
+
+	@Test
+	void invalidatesKeysFromOtherInstancesOnly() {
+		List<String> invalidated = new ArrayList<>();
+		bus.register("phone", invalidated::add, () -> {
+		});
+		bus.register("customer", key -> {
+			throw new IllegalArgumentException("bad key");
+		}, () -> {
+		});
+
+		bus.onNotification(notification(bus.getInstanceId() + "|phone:+201001234567"));
+		assertEquals(List.of(), invalidated, "own notifications are skipped");
+
+		bus.onNotification(notification("0ther1d|phone:+201001234567\ncustomer:x\nunknown:3\nphone:+201007654321"));
+		bus.onNotification(notification("no sender"));
+		assertEquals(List.of("+201001234567", "+201007654321"), invalidated);
+	}
+}
@@ -0,0 +1,94 @@
+package com.ragy.customerservice.infrastructure.cache;
+
+import com.ragy.customerservice.data.dto.response.CustomerResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneLookupCacheTests {
+
+	private static final String PHONE = "+201001234567";
+
+	static PhoneLookupCache cache(int maxEntries, Duration ttl, Duration negativeTtl) {
+		CacheInvalidationBus bus = new CacheInvalidationBus(new CacheBusProperties(),
+				CacheInvalidationBusTests.r2dbc("r2dbc:postgresql://localhost/customers"), null, new SimpleMeterRegistry());
+		return new PhoneLookupCache(new SimpleMeterRegistry(), bus, maxEntries, ttl, negativeTtl);
+	}
+
+	static CustomerResponse customer(String phone) {
+		CustomerResponse customer = new CustomerResponse();
+		customer.setId(UUID.randomUUID());
+		customer.setPhone(phone);
+		return customer;
+	}
+
+	@Test
+	void cachesFoundAndUnknownNumbers() {
+		PhoneLookupCache cache = cache(10, Duration.ofMinutes(10), Duration.ofMinutes(1));
+		CustomerResponse customer = customer(PHONE);
+
+		assertNull(cache.get(PHONE));
+		cache.put(PHONE, cache.beginLoad(PHONE), customer);
+		cache.putUnknown("+201007654321", cache.beginLoad("+201007654321"));
+
+		assertSame(customer, cache.get(PHONE).customer());
+		assertNotNull(cache.get("+201007654321"), "a negative entry is a hit");
+		assertNull(cache.get("+201007654321").customer());
+	}
+
+	@Test
+	void aLoadInProgressIsNotAHit() {
+		PhoneLookupCache cache = cache(10, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+		cache.beginLoad(PHONE);
+
+		assertNull(cache.get(PHONE));
+	}
+
+	@Test
+	void dropsALoadThatRacedAnInvalidation() {
+		PhoneLookupCache cache = cache(10, Duration.ofMinutes(10), Duration.ofMinutes(1));
+
+		// read the old row, then a write commits and invalidates, then the read completes
+		long load = cache.beginLoad(PHONE);
+		cache.invalidate(PHONE);
+		cache.putUnknown(PHONE, load);
+
+		assertNull(cache.get(PHONE), "the value from before the write must not be cached");
+	}
+
+	@Test
+	void keepsOnlyTheLatestLoad() {
+		PhoneLookupCache cache = cache(10, Duration.ofMinutes(10), Duration.ofMinutes(1));
+		CustomerResponse fresh = customer(PHONE);
+
+		long first = cache.beginLoad(PHONE);
+		long second = cache.beginLoad(PHONE);
+		cache.put(PHONE, second, fresh);
+		cache.putUnknown(PHONE, first);
+
+		assertSame(fresh, cache.get(PHONE).customer());
+	}
+
+	@Test
+	void expiresEntriesAndEvictsTheLeastRecentlyUsed() {
+		PhoneLookupCache expiring = cache(10, Duration.ZERO, Duration.ZERO);
+		expiring.put(PHONE, expiring.beginLoad(PHONE), customer(PHONE));
+		assertNull(expiring.get(PHONE));
+		assertEquals(0, expiring.size());
+
+		PhoneLookupCache cache = cache(2, Duration.ofMinutes(10), Duration.ofMinutes(1));
+		cache.putUnknown("+201000000001", cache.beginLoad("+201000000001"));
+		cache.putUnknown("+201000000002", cache.beginLoad("+201000000002"));
+		cache.get("+201000000001");
+		cache.putUnknown("+201000000003", cache.beginLoad("+201000000003"));
+
+		assertNotNull(cache.get("+201000000001"));
+		assertNull(cache.get("+201000000002"));
+		assertNotNull(cache.get("+201000000003"));
+	}
+}
@@ -0,0 +1,112 @@
+package com.ragy.customerservice.infrastructure.repository;
+
+import com.ragy.customerservice.data.entity.CustomerEntity;
+import com.ragy.customerservice.domain.model.PhoneNumbers;
+import io.r2dbc.spi.ConnectionFactories;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Rows per second the bulk ingest gets into Postgres, by rows per INSERT statement. Every
+// invocation inserts ROWS customers; a batch size of 1 is one round trip per customer, the
+// cost of the single-create path. Runs against a Postgres container with migration.sql applied.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CustomerIngestBenchmark {
+
+	static final int ROWS = 2000;
+
+	static final String SCHEMA = """
+			CREATE SEQUENCE IF NOT EXISTS customer_number_seq;
+			CREATE TABLE IF NOT EXISTS customers (
+			    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+			    customer_number VARCHAR(20) NOT NULL DEFAULT 'C' || nextval('customer_number_seq'),
+			    name VARCHAR(100) NOT NULL, phone VARCHAR(30) NOT NULL, email VARCHAR(100),
+			    created_at TIMESTAMPTZ NOT NULL DEFAULT now(), updated_at TIMESTAMPTZ NOT NULL DEFAULT now())
+			""";
+
+	@Param({"1", "50", "500", "2000"})
+	int batchSize;
+
+	PostgreSQLContainer<?> postgres;
+	CustomerBatchRepository repository;
+	long nextPhone = 1_000_000_000L;
+
+	@Setup
+	public void setUp() throws IOException {
+		postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+		postgres.start();
+		DatabaseClient db = DatabaseClient.create(ConnectionFactories.get("r2dbc:pool:postgresql://"
+				+ postgres.getUsername() + ":" + postgres.getPassword() + "@" + postgres.getHost() + ":"
+				+ postgres.getMappedPort(5432) + "/" + postgres.getDatabaseName()));
+		String migration = new ClassPathResource("migration.sql").getContentAsString(StandardCharsets.UTF_8)
+				.lines()
+				.filter(line -> !line.strip().startsWith("--"))
+				.collect(Collectors.joining("\n"));
+		for (String statement : (SCHEMA + ";" + migration).split(";")) {
+			if (!statement.isBlank()) {
+				db.sql(statement).then().block();
+			}
+		}
+		repository = new CustomerBatchRepository(db);
+	}
+
+	@TearDown
+	public void tearDown() {
+		postgres.stop();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int insert() {
+		List<List<CustomerEntity>> batches = new ArrayList<>();
+		for (int offset = 0; offset < ROWS; offset += batchSize) {
+			List<CustomerEntity> batch = new ArrayList<>(batchSize);
+			for (int i = 0; i < batchSize && offset + i < ROWS; i++) {
+				batch.add(customer());
+			}
+			batches.add(batch);
+		}
+		return Flux.fromIterable(batches)
+				.concatMap(repository::insertAll)
+				.count()
+				.block()
+				.intValue();
+	}
+
+	// Phone numbers never repeat, so every row is a new customer
+	CustomerEntity customer() {
+		String phone = "+20" + nextPhone++;
+		CustomerEntity customer = new CustomerEntity();
+		customer.setName("Customer " + phone);
+		customer.setPhone(phone);
+		customer.setPhoneNormalized(PhoneNumbers.normalize(phone, "20"));
+		customer.setEmail(phone.substring(1) + "@example.com");
+		return customer;
+	}
+}
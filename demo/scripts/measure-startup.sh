@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compares startup time and memory of the service with and without Spring AOT + CDS.
+# Each run stops right after the application context has refreshed (spring.context.exit=onRefresh).
+# The baseline runs the same jar with default JVM flags, so the JDK's own CDS archive stays on
+# and the difference is what the app archive and the AOT code add on top of it.
+# Usage: measure-startup.sh <app-jar> <cds-dir> [runs]
+set -euo pipefail
+
+APP_JAR="$1"
+CDS_DIR="$2"
+RUNS="${3:-3}"
+ARCHIVE="$CDS_DIR/app.jsa"
+REPORT="$CDS_DIR/startup-report.txt"
+
+if [[ ! -f "$ARCHIVE" ]]; then
+  echo "No CDS archive at $ARCHIVE; the training run did not produce one" >&2
+  exit 1
+fi
+
+# Prints "<avg startup ms> <avg committed MB>" for one JVM configuration
+measure() {
+  local total_ms=0 total_kb=0
+  for _ in $(seq "$RUNS"); do
+    local start end output committed_kb
+    start=$(date +%s%N)
+    output=$(java "$@" \
+      -XX:NativeMemoryTracking=summary -XX:+UnlockDiagnosticVMOptions -XX:+PrintNMTStatistics \
+      -Dspring.context.exit=onRefresh -jar "$APP_JAR" 2>&1)
+    end=$(date +%s%N)
+    committed_kb=$(grep -m1 -oE 'Total: reserved=[0-9]+KB, committed=[0-9]+KB' <<<"$output" \
+      | sed -E 's/.*committed=([0-9]+)KB/\1/')
+    total_ms=$(( total_ms + (end - start) / 1000000 ))
+    total_kb=$(( total_kb + ${committed_kb:-0} ))
+  done
+  echo "$(( total_ms / RUNS )) $(( total_kb / RUNS / 1024 ))"
+}
+
+read -r base_ms base_mb < <(measure)
+read -r opt_ms opt_mb < <(measure -XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true)
+
+{
+  echo "Startup until context refresh, average of $RUNS runs ($(basename "$APP_JAR"))"
+  printf '%-12s %12s %14s\n' "mode" "startup ms" "committed MB"
+  printf '%-12s %12s %14s\n' "baseline" "$base_ms" "$base_mb"
+  printf '%-12s %12s %14s\n' "aot+cds" "$opt_ms" "$opt_mb"
+} | tee "$REPORT"
@@ -0,0 +1,33 @@
+package com.example.demo.data.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// One row per customer car added or removed; the id is the change-feed sequence number.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("customer_car_changes")
+public class CustomerCarChangeEntity {
+
+    public static final String ADDED = "ADDED";
+    public static final String REMOVED = "REMOVED";
+
+    @Id
+    private Long id;
+
+    @Column("car_id")
+    private Long carId;
+
+    @Column("operation")
+    private String operation;
+
+    @Column("changed_at")
+    private Instant changedAt;
+}
@@ -7,6 +7,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,4 +23,7 @@ public class CustomerCarEntity {
 
     @Column("automotive_id")
     private Long automotiveId;
+
+    @Column("customer_id")
+    private UUID customerId;
 }
\ No newline at end of file
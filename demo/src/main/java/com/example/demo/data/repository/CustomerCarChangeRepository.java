@@ -0,0 +1,18 @@
+package com.example.demo.data.repository;
+
+import com.example.demo.data.entity.CustomerCarChangeEntity;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface CustomerCarChangeRepository extends R2dbcRepository<CustomerCarChangeEntity, Long> {
+
+    @Query("SELECT * FROM customer_car_changes WHERE id > :after ORDER BY id LIMIT :limit")
+    Flux<CustomerCarChangeEntity> findChangesAfter(Long after, int limit);
+
+    @Query("SELECT COALESCE(MAX(id), 0) FROM customer_car_changes")
+    Mono<Long> findLatestSequence();
+}
@@ -4,6 +4,9 @@ import com.example.demo.domain.model.CustomerCar;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
 
 @Repository
 public interface CustomerCarRepository extends R2dbcRepository<CustomerCar, Long> {
@@ -12,5 +15,9 @@ public interface CustomerCarRepository extends R2dbcRepository<CustomerCar, Long
     // Flux<CustomerCar> findByAutomotiveId(Long automotiveId);
     // Mono<CustomerCar> findByVin(String vin);
 
+    @Query("SELECT id FROM customer_cars")
+    Flux<Long> findAllIds();
+
+    Flux<CustomerCar> findByCustomerId(UUID customerId);
 }
 
@@ -1,9 +1,13 @@
 package com.example.demo.data.service;
 
+import com.example.demo.data.entity.CustomerCarChangeEntity;
+import com.example.demo.domain.model.CarRegistrySnapshot;
 import com.example.demo.domain.model.CustomerCar;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 // This is the INTERFACE (PROMISE)
 public interface CustomerCarService {
     // PROMISE 1: "I can get all customer cars"
@@ -23,5 +27,14 @@ public interface CustomerCarService {
 
     // PROMISE 6: "I can count all customer cars"
     Mono<Long> countAllCustomerCars();
+
+    // PROMISE 7: "I can give a snapshot of all car ids for other services to replicate"
+    Mono<CarRegistrySnapshot> getCarIdSnapshot();
+
+    // PROMISE 8: "I can list the cars added or removed after a change-feed sequence"
+    Flux<CustomerCarChangeEntity> getCarChangesAfter(Long after, int limit);
+
+    // PROMISE 9: "I can list all cars of one customer"
+    Flux<CustomerCar> getCustomerCarsByCustomerId(UUID customerId);
 }
 
@@ -0,0 +1,17 @@
+package com.example.demo.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// All customer car ids, plus the change-feed sequence they are consistent with.
+// Changes after that sequence are served by /api/customer-cars/changes.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarRegistrySnapshot {
+    private Long sequence;
+    private List<Long> carIds;
+}
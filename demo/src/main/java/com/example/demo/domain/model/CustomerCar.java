@@ -5,6 +5,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,4 +17,6 @@ public class CustomerCar {
 
     private String vin;
     private Long automotiveId;
+    // Owner in customer-service; null for cars registered before owners were tracked
+    private UUID customerId;
 }
\ No newline at end of file
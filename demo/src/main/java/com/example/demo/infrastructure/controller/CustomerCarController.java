@@ -1,5 +1,7 @@
 package com.example.demo.infrastructure.controller;
 
+import com.example.demo.data.entity.CustomerCarChangeEntity;
+import com.example.demo.domain.model.CarRegistrySnapshot;
 import com.example.demo.domain.model.CustomerCar;
 import com.example.demo.data.service.CustomerCarService;  // ← Import the INTERFACE!
 import lombok.RequiredArgsConstructor;
@@ -7,6 +9,8 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/customer-cars")
 @RequiredArgsConstructor
@@ -35,6 +39,11 @@ public class CustomerCarController {
         return CustomerCarServiceImplement.deleteCustomerCar(id);
     }
 
+    @GetMapping("/customer/{customerId}")
+    public Flux<CustomerCar> getCustomerCarsByCustomerId(@PathVariable UUID customerId) {
+        return CustomerCarServiceImplement.getCustomerCarsByCustomerId(customerId);
+    }
+
     @GetMapping("/vin/{vin}")
     public Mono<CustomerCar> findCustomerCarByVin(@PathVariable String vin) {
         return CustomerCarServiceImplement.findCustomerCarByVin(vin);
@@ -44,5 +53,19 @@ public class CustomerCarController {
     public Mono<Long> countCustomerCars() {
         return CustomerCarServiceImplement.countAllCustomerCars();
     }
+
+    // Bulk snapshot of car ids used to seed the Booking service's car registry
+    @GetMapping("/ids")
+    public Mono<CarRegistrySnapshot> getCarIdSnapshot() {
+        return CustomerCarServiceImplement.getCarIdSnapshot();
+    }
+
+    // Incremental change feed after a snapshot sequence
+    @GetMapping("/changes")
+    public Flux<CustomerCarChangeEntity> getCarChanges(
+            @RequestParam(defaultValue = "0") Long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return CustomerCarServiceImplement.getCarChangesAfter(after, Math.min(limit, 10_000));
+    }
 }
 
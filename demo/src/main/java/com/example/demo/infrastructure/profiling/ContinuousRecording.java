@@ -0,0 +1,202 @@
+package com.example.demo.infrastructure.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// Always-on JDK Flight Recorder ring buffer. The continuous recording keeps at most max-age /
+// max-size of events on disk; a dump cuts the last few minutes out of it into the dump directory,
+// which keeps only the newest max-dumps files. Dumps are taken on demand (FlightRecordingEndpoint)
+// or when a request exceeds the latency threshold, at most once per cooldown.
+@Slf4j
+@Component
+public class ContinuousRecording implements SmartLifecycle {
+
+    private static final DateTimeFormatter DUMP_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final boolean enabled;
+    private final String settings;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path directory;
+    private final int maxDumps;
+    private final Duration latencyThreshold;
+    private final Duration triggerWindow;
+    private final Duration cooldown;
+    private final Counter dumpCounter;
+    private final Counter triggerCounter;
+    // Dumps run off the request threads, one at a time
+    private final ExecutorService dumpExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong lastTriggerNanos = new AtomicLong(System.nanoTime());
+
+    private volatile Recording recording;
+
+    public ContinuousRecording(
+            MeterRegistry meterRegistry,
+            @Value("${demo.profiling.enabled:true}") boolean enabled,
+            @Value("${demo.profiling.settings:default}") String settings,
+            @Value("${demo.profiling.max-age:15m}") Duration maxAge,
+            @Value("${demo.profiling.max-size-mb:200}") long maxSizeMb,
+            @Value("${demo.profiling.dump-directory:logs/jfr}") String directory,
+            @Value("${demo.profiling.max-dumps:10}") int maxDumps,
+            @Value("${demo.profiling.latency-threshold:2s}") Duration latencyThreshold,
+            @Value("${demo.profiling.trigger-window:5m}") Duration triggerWindow,
+            @Value("${demo.profiling.trigger-cooldown:10m}") Duration cooldown) {
+        this.enabled = enabled;
+        this.settings = settings;
+        this.maxAge = maxAge;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.directory = Path.of(directory);
+        this.maxDumps = maxDumps;
+        this.latencyThreshold = latencyThreshold;
+        this.triggerWindow = triggerWindow;
+        this.cooldown = cooldown;
+        this.dumpCounter = meterRegistry.counter("profiling.jfr.dumps");
+        this.triggerCounter = meterRegistry.counter("profiling.jfr.latency.triggers");
+        // the first trigger may fire right away
+        lastTriggerNanos.addAndGet(-cooldown.toNanos());
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration(settings));
+            continuous.setName("continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(maxAge);
+            continuous.setMaxSize(maxSizeBytes);
+            continuous.start();
+            recording = continuous;
+            log.info("Continuous JFR recording started ({} settings, last {} / {} MB kept)",
+                    settings, maxAge, maxSizeBytes / (1024 * 1024));
+        } catch (IOException | ParseException | IllegalStateException e) {
+            log.warn("Continuous JFR recording not started: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        dumpExecutor.shutdown();
+        Recording continuous = recording;
+        recording = null;
+        if (continuous != null) {
+            continuous.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    // Writes the last `window` of the continuous recording to a new dump file
+    public synchronized Path dump(Duration window, String reason) {
+        Recording continuous = recording;
+        if (continuous == null) {
+            throw new IllegalStateException("The continuous JFR recording is not running.");
+        }
+        Path raw = null;
+        try {
+            Files.createDirectories(directory);
+            raw = Files.createTempFile(directory, "ring-", ".tmp");
+            continuous.dump(raw);
+            Instant from = Instant.now().minus(window.compareTo(maxAge) > 0 ? maxAge : window);
+            Path target = directory.resolve(LocalDateTime.now().format(DUMP_TIME) + "-" + reason + ".jfr");
+            try (RecordingFile file = new RecordingFile(raw)) {
+                file.write(target, event -> !event.getEndTime().isBefore(from));
+            }
+            dumpCounter.increment();
+            rotate();
+            log.info("JFR dump written: {} (last {}, {})", target, window, reason);
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(raw);
+        }
+    }
+
+    public List<Path> dumps() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    // Called for every completed request; a slow one snapshots the moments leading up to it
+    public void onRequestCompleted(Duration elapsed) {
+        if (recording == null || elapsed.compareTo(latencyThreshold) < 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long last = lastTriggerNanos.get();
+        if (now - last < cooldown.toNanos() || !lastTriggerNanos.compareAndSet(last, now)) {
+            return;
+        }
+        triggerCounter.increment();
+        try {
+            dumpExecutor.execute(() -> {
+                try {
+                    dump(triggerWindow, "latency");
+                } catch (RuntimeException e) {
+                    log.warn("Latency-triggered JFR dump failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    // Keeps the newest maxDumps dumps; names start with the timestamp, so they sort by age
+    private void rotate() throws IOException {
+        List<Path> dumps = dumps();
+        for (Path old : dumps.subList(Math.min(maxDumps, dumps.size()), dumps.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // a leftover temp file is harmless; dumps() ignores it
+        }
+    }
+}
@@ -1,19 +1,28 @@
 package com.example.demo.infrastructure.service;
 
+import com.example.demo.data.entity.CustomerCarChangeEntity;
+import com.example.demo.data.repository.CustomerCarChangeRepository;
+import com.example.demo.domain.model.CarRegistrySnapshot;
 import com.example.demo.domain.model.CustomerCar;
 import com.example.demo.data.service.CustomerCarService;
 import com.example.demo.data.repository.CustomerCarRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class CustomerCarServiceImplement implements CustomerCarService {
     // This class now PROMISES to implement ALL methods from CustomerCarService interface
 
     private final CustomerCarRepository customerCarRepository;
+    private final CustomerCarChangeRepository customerCarChangeRepository;
+    private final TransactionalOperator transactionalOperator;
 
     // 1. Get all customer cars
     @Override
@@ -48,15 +57,21 @@ public class CustomerCarServiceImplement implements CustomerCarService {
                     if (vinExists) {
                         return Mono.error(new IllegalArgumentException("Customer car with this VIN already exists!"));
                     } else {
-                        return customerCarRepository.save(customerCar);
+                        return customerCarRepository.save(customerCar)
+                                .flatMap(saved -> recordChange(saved.getId(), CustomerCarChangeEntity.ADDED)
+                                        .thenReturn(saved));
                     }
-                });
+                })
+                .as(transactionalOperator::transactional);
     }
 
     // 4. Delete a customer car
     @Override
     public Mono<Void> deleteCustomerCar(Long id) {
-        return customerCarRepository.deleteById(id);
+        return customerCarRepository.deleteById(id)
+                .then(recordChange(id, CustomerCarChangeEntity.REMOVED))
+                .as(transactionalOperator::transactional)
+                .then();
     }
 
     // 5. Find customer car by VIN
@@ -72,5 +87,32 @@ public class CustomerCarServiceImplement implements CustomerCarService {
     public Mono<Long> countAllCustomerCars() {
         return customerCarRepository.count();
     }
+
+    // 7. Snapshot of all car ids for the Booking service's local car registry
+    @Override
+    public Mono<CarRegistrySnapshot> getCarIdSnapshot() {
+        // Read the sequence first: changes made while the ids are read are replayed from the feed
+        return customerCarChangeRepository.findLatestSequence()
+                .flatMap(sequence -> customerCarRepository.findAllIds()
+                        .collectList()
+                        .map(carIds -> new CarRegistrySnapshot(sequence, carIds)));
+    }
+
+    // 8. Change feed following a snapshot
+    @Override
+    public Flux<CustomerCarChangeEntity> getCarChangesAfter(Long after, int limit) {
+        return customerCarChangeRepository.findChangesAfter(after, limit);
+    }
+
+    // 9. All cars of one customer, in one query
+    @Override
+    public Flux<CustomerCar> getCustomerCarsByCustomerId(UUID customerId) {
+        return customerCarRepository.findByCustomerId(customerId);
+    }
+
+    private Mono<CustomerCarChangeEntity> recordChange(Long carId, String operation) {
+        return customerCarChangeRepository.save(
+                new CustomerCarChangeEntity(null, carId, operation, Instant.now()));
+    }
 }
 
@@ -0,0 +1,119 @@
+package com.example.demo.infrastructure.tracing;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+// Writes finished spans as one JSON object per line, for local runs without a collector.
+// Spans arrive in batches from the SDK's BatchSpanProcessor, off the request threads.
+public class FileSpanExporter implements SpanExporter {
+
+    private final BufferedWriter writer;
+
+    public FileSpanExporter(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open span file " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                StringBuilder line = new StringBuilder(256)
+                        .append("{\"traceId\":\"").append(span.getTraceId())
+                        .append("\",\"spanId\":\"").append(span.getSpanId())
+                        .append("\",\"parentSpanId\":\"").append(span.getParentSpanId())
+                        .append("\",\"name\":\"").append(escape(span.getName()))
+                        .append("\",\"kind\":\"").append(span.getKind())
+                        .append("\",\"startEpochNanos\":").append(span.getStartEpochNanos())
+                        .append(",\"durationMicros\":")
+                        .append(TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()))
+                        .append(",\"status\":\"").append(span.getStatus().getStatusCode())
+                        .append("\",\"attributes\":{");
+                boolean[] first = {true};
+                span.getAttributes().forEach((key, value) -> {
+                    if (!first[0]) {
+                        line.append(',');
+                    }
+                    first[0] = false;
+                    line.append('"').append(escape(key.getKey())).append("\":\"")
+                            .append(escape(String.valueOf(value))).append('"');
+                });
+                writer.write(line.append("}}").toString());
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        try {
+            synchronized (this) {
+                writer.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    // JSON string escaping: quote, backslash and every control character below U+0020, so a span
+    // name or attribute holding a newline cannot split the record across lines
+    static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                if (escaped != null) {
+                    escaped.append(c);
+                }
+                continue;
+            }
+            if (escaped == null) {
+                escaped = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                case '\b' -> escaped.append("\\b");
+                case '\f' -> escaped.append("\\f");
+                default -> escaped.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.infrastructure.tracing;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.transaction.reactive.TransactionCallback;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// TransactionalOperator that records a "transaction" span from begin to commit/rollback,
+// so slow commits show up separately from the queries inside them.
+public class ObservedTransactionalOperator implements TransactionalOperator {
+
+    private final TransactionalOperator delegate;
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedTransactionalOperator(TransactionalOperator delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public <T> Flux<T> transactional(Flux<T> flux) {
+        return delegate.transactional(flux)
+                .name("transaction")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    @Override
+    public <T> Mono<T> transactional(Mono<T> mono) {
+        return delegate.transactional(mono)
+                .name("transaction")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    @Override
+    public <T> Flux<T> execute(TransactionCallback<T> action) {
+        return delegate.execute(action)
+                .name("transaction")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.demo.infrastructure.warmup;
+
+import com.example.demo.data.repository.AutomotiveRepository;
+import com.example.demo.data.repository.BranchRepository;
+import com.example.demo.data.repository.CustomerCarRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Startup warm-up. Spring Boot only reports readiness (ACCEPTING_TRAFFIC) after all
+// ApplicationRunners finish, so the service stays out of rotation until this completes:
+//   1. opens the R2DBC pool's connections,
+//   2. runs every hot repository query on each connection so the statements are prepared,
+//   3. replays a read-only request mix through the local server until p99 stops improving.
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private final ConnectionFactory connectionFactory;
+    private final AutomotiveRepository automotiveRepository;
+    private final BranchRepository branchRepository;
+    private final CustomerCarRepository customerCarRepository;
+    private final Environment environment;
+    private final boolean enabled;
+    private final int maxRounds;
+    private final int requestsPerRound;
+    private final int concurrency;
+    private final double tolerance;
+    private final Duration timeout;
+
+    private final AtomicLong timeToSteadyStateMs = new AtomicLong();
+    private final AtomicLong steadyStateP99Micros = new AtomicLong();
+
+    public WarmupRunner(
+            ConnectionFactory connectionFactory,
+            AutomotiveRepository automotiveRepository,
+            BranchRepository branchRepository,
+            CustomerCarRepository customerCarRepository,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${demo.warmup.enabled:true}") boolean enabled,
+            @Value("${demo.warmup.max-rounds:20}") int maxRounds,
+            @Value("${demo.warmup.requests-per-round:200}") int requestsPerRound,
+            @Value("${demo.warmup.concurrency:16}") int concurrency,
+            @Value("${demo.warmup.tolerance:0.10}") double tolerance,
+            @Value("${demo.warmup.timeout:60s}") Duration timeout) {
+        this.connectionFactory = connectionFactory;
+        this.automotiveRepository = automotiveRepository;
+        this.branchRepository = branchRepository;
+        this.customerCarRepository = customerCarRepository;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.maxRounds = maxRounds;
+        this.requestsPerRound = requestsPerRound;
+        this.concurrency = concurrency;
+        this.tolerance = tolerance;
+        this.timeout = timeout;
+        meterRegistry.gauge("warmup.time.to.steady.state.ms", timeToSteadyStateMs);
+        meterRegistry.gauge("warmup.steady.state.p99.us", steadyStateP99Micros);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer opened = warmPool().block(timeout);
+            log.info("Warm-up: {} pooled connections opened", opened);
+            prepareStatements().block(timeout);
+            replayRequestMix();
+        } catch (RuntimeException e) {
+            // A failed warm-up only costs latency; never keep the service from starting
+            log.warn("Warm-up incomplete: {}", e.toString());
+        }
+    }
+
+    private Mono<Integer> warmPool() {
+        if (connectionFactory instanceof ConnectionPool pool) {
+            return pool.warmup();
+        }
+        return Mono.just(0);
+    }
+
+    // Each statement runs once per worker so it gets prepared on several pooled connections
+    private Mono<Void> prepareStatements() {
+        return Flux.range(0, concurrency)
+                .flatMap(i -> Mono.when(
+                        automotiveRepository.findById(-1L),
+                        branchRepository.findByAutomotiveId(-1L).then(),
+                        customerCarRepository.findById(-1L),
+                        customerCarRepository.findByCustomerId(new UUID(0L, 0L)).then()
+                ), concurrency)
+                .then();
+    }
+
+    // Read-only calls that exercise routing, codecs and repositories without changing data
+    private List<String> requestMix() {
+        return List.of(
+                "/api/automotives/-1",
+                "/api/branches/automotive/-1",
+                "/api/customer-cars/-1",
+                "/api/customer-cars/customer/" + new UUID(0L, 0L)
+        );
+    }
+
+    private void replayRequestMix() {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            return;
+        }
+        WebClient client = WebClient.create("http://localhost:" + port);
+        List<String> mix = requestMix();
+
+        long previousP99 = Long.MAX_VALUE;
+        for (int round = 1; round <= maxRounds; round++) {
+            long[] latencies = Flux.range(0, requestsPerRound)
+                    .flatMap(i -> timed(client, mix.get(i % mix.size())), concurrency)
+                    .collectList()
+                    .map(list -> list.stream().mapToLong(Long::longValue).sorted().toArray())
+                    .block(timeout);
+            if (latencies == null || latencies.length == 0) {
+                return;
+            }
+            long p99 = latencies[(int) Math.min(latencies.length - 1, Math.ceil(latencies.length * 0.99) - 1)];
+            log.debug("Warm-up round {}: p99 {} us", round, p99 / 1000);
+
+            // Steady once a round no longer improves p99 by more than the tolerance
+            if (p99 >= previousP99 * (1 - tolerance) || round == maxRounds) {
+                steadyStateP99Micros.set(p99 / 1000);
+                timeToSteadyStateMs.set(ManagementFactory.getRuntimeMXBean().getUptime());
+                log.info("Warm-up: steady after {} rounds, p99 {} us, {} ms after JVM start",
+                        round, p99 / 1000, timeToSteadyStateMs.get());
+                return;
+            }
+            previousP99 = p99;
+        }
+    }
+
+    private Mono<Long> timed(WebClient client, String uri) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get().uri(uri)
+                    .exchangeToMono(response -> response.releaseBody())
+                    .onErrorResume(e -> Mono.empty())
+                    .then(Mono.fromSupplier(() -> System.nanoTime() - start));
+        });
+    }
+}
@@ -23,6 +23,18 @@ CREATE TABLE IF NOT EXISTS customer_cars (
 CREATE INDEX IF NOT EXISTS idx_customer_cars_vin ON customer_cars(vin);
 CREATE INDEX IF NOT EXISTS idx_customer_cars_automotive_id ON customer_cars(automotive_id);
 
+-- Step 5: Change feed of customer cars, replicated by the Booking service's car registry
+CREATE TABLE IF NOT EXISTS customer_car_changes (
+    id BIGSERIAL PRIMARY KEY,
+    car_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Step 6: Owner of the car in customer-service, used to list a customer's cars
+ALTER TABLE customer_cars ADD COLUMN IF NOT EXISTS customer_id UUID;
+CREATE INDEX IF NOT EXISTS idx_customer_cars_customer_id ON customer_cars(customer_id);
+
 -- Verification: Check tables were created
 SELECT table_name 
 FROM information_schema.tables 
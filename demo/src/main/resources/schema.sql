@@ -18,3 +18,15 @@ CREATE INDEX IF NOT EXISTS idx_customer_cars_vin ON customer_cars(vin);
 
 -- Optional: Add index on automotive_id for faster joins
 CREATE INDEX IF NOT EXISTS idx_customer_cars_automotive_id ON customer_cars(automotive_id);
+
+-- Change feed of customer cars, replicated by the Booking service's car registry
+CREATE TABLE IF NOT EXISTS customer_car_changes (
+    id BIGSERIAL PRIMARY KEY,
+    car_id BIGINT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Owner of the car in customer-service, used to list a customer's cars
+ALTER TABLE customer_cars ADD COLUMN IF NOT EXISTS customer_id UUID;
+CREATE INDEX IF NOT EXISTS idx_customer_cars_customer_id ON customer_cars(customer_id);